@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import io.github.forgecommunitywiki.examplemod.item.InstrumentItem;
+import io.github.forgecommunitywiki.examplemod.sound.*;
+import net.minecraft.block.Block;
+import net.minecraft.block.Blocks;
+import net.minecraft.item.Item;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.SoundEvents;
+
+/**
+ * Benchmarks the lookup of the sound an instrument makes when hitting a block.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneralRegistrarBenchmark {
+
+    private InstrumentItem drumstick;
+    private Block hit;
+    private Block miss;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.bootstrap();
+        this.drumstick = new InstrumentItem(300, new Item.Properties());
+        this.hit = Blocks.DARK_OAK_LOG;
+        this.miss = Blocks.STONE;
+
+        final List<InstrumentSoundRule> rules = new ArrayList<>();
+        for (final Block block : new Block[] { Blocks.OAK_LOG, Blocks.BIRCH_LOG, Blocks.SPRUCE_LOG,
+                Blocks.JUNGLE_LOG, Blocks.ACACIA_LOG, Blocks.DARK_OAK_LOG, Blocks.CRIMSON_STEM, Blocks.WARPED_STEM })
+            rules.add(InstrumentSoundRule.block(block, SoundEvents.BLOCK_WOOD_HIT, 0));
+        InstrumentSoundManager.publish(
+                InstrumentSoundTable.compile(Collections.singletonMap(this.drumstick, rules)));
+    }
+
+    @Benchmark
+    public Optional<SoundEvent> optionalHit() {
+        return GeneralRegistrar.getInstrumentElementSounds(this.drumstick, this.hit);
+    }
+
+    @Benchmark
+    public Optional<SoundEvent> optionalMiss() {
+        return GeneralRegistrar.getInstrumentElementSounds(this.drumstick, this.miss);
+    }
+
+    @Benchmark
+    public SoundEvent nullableHit() {
+        return GeneralRegistrar.getInstrumentElementSound(this.drumstick, this.hit);
+    }
+
+    @Benchmark
+    public SoundEvent nullableMiss() {
+        return GeneralRegistrar.getInstrumentElementSound(this.drumstick, this.miss);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.block;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import io.github.forgecommunitywiki.examplemod.BenchmarkBootstrap;
+import net.minecraft.block.*;
+import net.minecraft.util.Direction;
+import net.minecraft.util.Direction.Axis;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.shapes.ISelectionContext;
+import net.minecraft.util.math.shapes.VoxelShape;
+import net.minecraft.util.math.shapes.VoxelShapes;
+import net.minecraft.world.EmptyBlockReader;
+
+/**
+ * Benchmarks the shape and fire lookups of a {@link RotatedInstrumentBlock},
+ * which are called by collision, ray tracing, rendering, and fire ticks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RotatedInstrumentBlockBenchmark {
+
+    @Param({ "X", "Y", "Z" })
+    private Axis axis;
+
+    private RotatedInstrumentBlock block;
+    private BlockState state;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.bootstrap();
+        this.block = new RotatedInstrumentBlock(() -> Blocks.OAK_LOG.getDefaultState(),
+                VoxelShapes.or(Block.makeCuboidShape(1, 0, 1, 15, 16, 15), Block.makeCuboidShape(5, 0, 0, 11, 16, 16),
+                        Block.makeCuboidShape(0, 0, 5, 16, 16, 11)),
+                AbstractBlock.Properties.from(Blocks.OAK_LOG));
+        this.state = this.block.getDefaultState().with(RotatedPillarBlock.AXIS, this.axis);
+    }
+
+    @Benchmark
+    public VoxelShape getShape() {
+        return this.block.getShape(this.state, EmptyBlockReader.INSTANCE, BlockPos.ZERO, ISelectionContext.dummy());
+    }
+
+    @Benchmark
+    public VoxelShape getCollisionShape() {
+        return this.block.getCollisionShape(this.state, EmptyBlockReader.INSTANCE, BlockPos.ZERO,
+                ISelectionContext.dummy());
+    }
+
+    @Benchmark
+    public int getFlammability() {
+        return this.block.getFlammability(this.state, EmptyBlockReader.INSTANCE, BlockPos.ZERO, Direction.UP);
+    }
+
+    @Benchmark
+    public VoxelShape getRayTraceShape() {
+        return this.block.getRayTraceShape(this.state, EmptyBlockReader.INSTANCE, BlockPos.ZERO,
+                ISelectionContext.dummy());
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.item;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import io.github.forgecommunitywiki.examplemod.BenchmarkBootstrap;
+import io.github.forgecommunitywiki.examplemod.block.RotatedInstrumentBlock;
+import net.minecraft.block.AbstractBlock;
+import net.minecraft.block.Blocks;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.math.shapes.VoxelShapes;
+
+/**
+ * Benchmarks the burn time lookup of a {@link WrappedBlockItem}, which is
+ * called by furnaces and hoppers every tick a slot is checked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WrappedBlockItemBenchmark {
+
+    private WrappedBlockItem<RotatedInstrumentBlock> item;
+    private ItemStack stack;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.bootstrap();
+        final RotatedInstrumentBlock block = new RotatedInstrumentBlock(() -> Blocks.OAK_LOG.getDefaultState(),
+                VoxelShapes.fullCube(), AbstractBlock.Properties.from(Blocks.OAK_LOG));
+        this.item = new WrappedBlockItem<>(block, new Item.Properties());
+        this.stack = new ItemStack(this.item);
+    }
+
+    @Benchmark
+    public int getBurnTime() {
+        return this.item.getBurnTime(this.stack);
+    }
+}
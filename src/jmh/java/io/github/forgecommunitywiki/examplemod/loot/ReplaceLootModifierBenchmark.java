@@ -0,0 +1,110 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.loot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import io.github.forgecommunitywiki.examplemod.BenchmarkBootstrap;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.loot.conditions.ILootCondition;
+
+/**
+ * Benchmarks the application of a {@link ReplaceLootModifier}, alone and as a
+ * rule of a {@link CompiledReplaceLootModifier}, over loot lists similar to
+ * those generated in game. The list is copied on every invocation as a modifier
+ * may modify it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplaceLootModifierBenchmark {
+
+    /**
+     * The loot being modified: a block break with no target, a chicken kill, a
+     * chest with a target among other stacks, and a stack larger than the
+     * replacement can hold.
+     */
+    @Param({ "block", "chicken", "chest", "oversized" })
+    private String loot;
+
+    private ReplaceLootModifier modifier;
+    private CompiledReplaceLootModifier compiled;
+    private List<ItemStack> generatedLoot;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.bootstrap();
+        this.modifier = new ReplaceLootModifier(new ILootCondition[0], Items.CHICKEN,
+                new ItemStack(Items.COOKED_CHICKEN, 2));
+        this.compiled = new CompiledReplaceLootModifier(new ILootCondition[0],
+                Collections.singletonList(this.modifier));
+        this.generatedLoot = new ArrayList<>();
+        switch (this.loot) {
+            case "block":
+                this.generatedLoot.add(new ItemStack(Items.COBBLESTONE));
+                break;
+            case "chicken":
+                this.generatedLoot.add(new ItemStack(Items.FEATHER, 2));
+                this.generatedLoot.add(new ItemStack(Items.CHICKEN));
+                break;
+            case "chest":
+                this.generatedLoot.add(new ItemStack(Items.BREAD, 3));
+                this.generatedLoot.add(new ItemStack(Items.IRON_INGOT, 4));
+                this.generatedLoot.add(new ItemStack(Items.CHICKEN, 2));
+                this.generatedLoot.add(new ItemStack(Items.STRING, 5));
+                this.generatedLoot.add(new ItemStack(Items.ROTTEN_FLESH, 7));
+                this.generatedLoot.add(new ItemStack(Items.GOLD_INGOT, 1));
+                this.generatedLoot.add(new ItemStack(Items.CHICKEN, 1));
+                this.generatedLoot.add(new ItemStack(Items.SADDLE));
+                this.generatedLoot.add(new ItemStack(Items.WHEAT, 6));
+                this.generatedLoot.add(new ItemStack(Items.COAL, 8));
+                break;
+            case "oversized":
+                this.generatedLoot.add(new ItemStack(Items.CHICKEN, 64));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown loot: " + this.loot);
+        }
+    }
+
+    @Benchmark
+    public List<ItemStack> doApply() {
+        return this.modifier.doApply(new ArrayList<>(this.generatedLoot), null);
+    }
+
+    @Benchmark
+    public List<ItemStack> doApplyCompiled() {
+        return this.compiled.doApply(new ArrayList<>(this.generatedLoot), null);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.potion;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import io.github.forgecommunitywiki.examplemod.BenchmarkBootstrap;
+import net.minecraft.potion.EffectType;
+import net.minecraft.util.DamageSource;
+
+/**
+ * Benchmarks the check performed every tick for each entity with a
+ * {@link DamageEffect} applied.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DamageEffectBenchmark {
+
+    @Param({ "0", "1", "6" })
+    private int amplifier;
+
+    private DamageEffect effect;
+    private int duration;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.bootstrap();
+        this.effect = new DamageEffect(EffectType.HARMFUL, 0x9F0000, DamageSource.MAGIC, 40, false);
+        this.duration = 400;
+    }
+
+    @Benchmark
+    public boolean isReady() {
+        if (--this.duration < 0)
+            this.duration = 400;
+        return this.effect.isReady(this.duration, this.amplifier);
+    }
+}
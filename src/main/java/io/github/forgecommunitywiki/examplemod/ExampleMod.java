@@ -26,17 +26,42 @@ package io.github.forgecommunitywiki.examplemod;
 
 import java.util.stream.Stream;
 
+import io.github.forgecommunitywiki.examplemod.block.InstrumentTriggerQueue;
+import io.github.forgecommunitywiki.examplemod.block.RotatedInstrumentBlock;
+import io.github.forgecommunitywiki.examplemod.capability.InstrumentIndex;
+import io.github.forgecommunitywiki.examplemod.capability.NoteStore;
 import io.github.forgecommunitywiki.examplemod.client.ClientHandler;
+import io.github.forgecommunitywiki.examplemod.command.ExampleCommands;
+import io.github.forgecommunitywiki.examplemod.config.ClientConfig;
+import io.github.forgecommunitywiki.examplemod.config.ServerConfig;
+import io.github.forgecommunitywiki.examplemod.data.ParallelDataProvider;
 import io.github.forgecommunitywiki.examplemod.data.client.*;
 import io.github.forgecommunitywiki.examplemod.data.server.*;
+import io.github.forgecommunitywiki.examplemod.harness.DrumStress;
+import io.github.forgecommunitywiki.examplemod.harness.LootSimulation;
+import io.github.forgecommunitywiki.examplemod.network.NetworkHandler;
+import io.github.forgecommunitywiki.examplemod.potion.DamageOverTimeScheduler;
+import io.github.forgecommunitywiki.examplemod.sound.InstrumentRateLimiter;
+import io.github.forgecommunitywiki.examplemod.sound.InstrumentSoundManager;
+import io.github.forgecommunitywiki.examplemod.sound.NoteEventBatcher;
+import io.github.forgecommunitywiki.examplemod.sound.PitchTables;
+import io.github.forgecommunitywiki.examplemod.tileentity.SequencerScheduler;
+import io.github.forgecommunitywiki.examplemod.util.BurnTimeCache;
+import io.github.forgecommunitywiki.examplemod.util.Metrics;
 import net.minecraft.data.DataGenerator;
+import net.minecraft.world.chunk.Chunk;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.data.ExistingFileHelper;
+import net.minecraftforge.event.AddReloadListenerEvent;
+import net.minecraftforge.event.RegistryEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.fml.DistExecutor;
 import net.minecraftforge.fml.InterModComms;
+import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.config.ModConfig;
 import net.minecraftforge.fml.event.lifecycle.*;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
 
@@ -60,9 +85,51 @@ public final class ExampleMod {
         // Initialize registries
         GeneralRegistrar.register(mod);
 
+        // Initialize configs
+        ModLoadingContext.get().registerConfig(ModConfig.Type.CLIENT, ClientConfig.SPEC);
+        ModLoadingContext.get().registerConfig(ModConfig.Type.SERVER, ServerConfig.SPEC);
+
         // Attach common events
         mod.addListener(this::commonSetup);
         mod.addListener(this::attachProviders);
+        mod.addListener(PitchTables::onConfigChanged);
+        mod.addListener(DamageOverTimeScheduler::onConfigChanged);
+        mod.addListener(InstrumentRateLimiter::onConfigChanged);
+        mod.addListener(Metrics::onConfigChanged);
+        forge.addListener(this::remapIds);
+        forge.addListener(this::addReloadListeners);
+        forge.addListener(ExampleCommands::register);
+
+        // Attach game events
+        forge.addListener(InstrumentSoundManager::onPlayerLoggedIn);
+        forge.addListener(InstrumentSoundManager::onTagsUpdated);
+        forge.addListener(EventPriority.HIGH, BurnTimeCache::onTagsUpdated);
+        forge.addGenericListener(Chunk.class, InstrumentIndex::attach);
+        forge.addListener(InstrumentIndex::onChunkLoad);
+        forge.addGenericListener(Chunk.class, NoteStore::attach);
+        forge.addListener(NoteStore::onChunkWatch);
+        forge.addListener(EventPriority.LOWEST, NoteStore::onPistonMove);
+        forge.addListener(NoteStore::onWorldUnload);
+        forge.addListener(InstrumentTriggerQueue::onServerTick);
+        forge.addListener(InstrumentTriggerQueue::onServerStopped);
+        forge.addListener(SequencerScheduler::onWorldTick);
+        forge.addListener(SequencerScheduler::onWorldUnload);
+        forge.addListener(NoteEventBatcher::onWorldTick);
+        forge.addListener(NoteEventBatcher::onServerStopped);
+        forge.addListener(InstrumentRateLimiter::onPlayerLoggedOut);
+        forge.addListener(InstrumentRateLimiter::onServerStopped);
+        forge.addListener(DamageOverTimeScheduler::onPotionAdded);
+        forge.addListener(DamageOverTimeScheduler::onEntityJoinWorld);
+        forge.addListener(DamageOverTimeScheduler::onWorldTick);
+        forge.addListener(DamageOverTimeScheduler::onWorldUnload);
+
+        // Attach harnesses requested for this run
+        if (LootSimulation.isEnabled())
+            forge.addListener(LootSimulation::onServerStarted);
+        if (DrumStress.isEnabled()) {
+            forge.addListener(DrumStress::onServerStarted);
+            forge.addListener(DrumStress::onServerTick);
+        }
     }
 
     /**
@@ -73,26 +140,56 @@ public final class ExampleMod {
      * @param event The common setup event
      */
     private void commonSetup(final FMLCommonSetupEvent event) {
-        event.enqueueWork(GeneralRegistrar::registerSlaveMaps);
+        InstrumentIndex.register();
+        NoteStore.register();
+        event.enqueueWork(NetworkHandler::register);
+    }
+
+    /**
+     * Recompiles any tables keyed by raw registry ids. This happens when the
+     * registries are frozen and whenever their ids are remapped, such as when
+     * connecting to a server.
+     *
+     * @param event The id mapping event
+     */
+    private void remapIds(final RegistryEvent.IdMappingEvent event) {
+        InstrumentSoundManager.remap();
+        RotatedInstrumentBlock.resolveWrappedProperties();
+    }
+
+    /**
+     * Attaches all reload listeners used to read data packs.
+     *
+     * @param event The add reload listener event
+     */
+    private void addReloadListeners(final AddReloadListenerEvent event) {
+        event.addListener(new InstrumentSoundManager());
     }
 
     /**
-     * Attaches all providers to be used with data generation.
+     * Attaches all providers to be used with data generation. The providers run
+     * concurrently and are skipped if their inputs have not changed, see
+     * {@link ParallelDataProvider}.
      *
      * @param event The data generator event
      */
     private void attachProviders(final GatherDataEvent event) {
         final DataGenerator gen = event.getGenerator();
         final ExistingFileHelper helper = event.getExistingFileHelper();
+        final ParallelDataProvider providers = new ParallelDataProvider(gen,
+                ParallelDataProvider.getInputs("examplemod.data.code"));
         if (event.includeClient()) {
-            Stream.of("en_us").forEach(locale -> gen.addProvider(new Localizations(gen, locale)));
-            gen.addProvider(new ItemModels(gen, helper));
-            gen.addProvider(new BlockStates(gen, helper));
+            Stream.of("en_us").forEach(locale -> providers.add(new Localizations(gen, locale)));
+            // Model providers share the existing file helper, so they must run one after another
+            providers.add(ParallelDataProvider.getInputs("examplemod.data.resources"), new ItemModels(gen, helper),
+                    new BlockStates(gen, helper));
         }
         if (event.includeServer()) {
-            gen.addProvider(new Recipes(gen));
-            gen.addProvider(new GlobalLootModifiers(gen));
-            gen.addProvider(new LootTables(gen));
+            providers.add(new Recipes(gen));
+            providers.add(new GlobalLootModifiers(gen));
+            providers.add(new LootTables(gen));
+            providers.add(new InstrumentSounds(gen));
         }
+        gen.addProvider(providers);
     }
 }
@@ -31,13 +31,18 @@ import java.util.function.Supplier;
 import javax.annotation.Nullable;
 
 import io.github.forgecommunitywiki.examplemod.block.RotatedInstrumentBlock;
+import io.github.forgecommunitywiki.examplemod.block.SequencerBlock;
 import io.github.forgecommunitywiki.examplemod.item.*;
+import io.github.forgecommunitywiki.examplemod.loot.CompiledReplaceLootModifier;
 import io.github.forgecommunitywiki.examplemod.loot.ReplaceLootModifier;
 import io.github.forgecommunitywiki.examplemod.potion.DamageEffect;
+import io.github.forgecommunitywiki.examplemod.sound.InstrumentSoundManager;
+import io.github.forgecommunitywiki.examplemod.tileentity.SequencerTileEntity;
 import io.github.forgecommunitywiki.examplemod.util.GeneralHelper;
 import net.minecraft.block.*;
 import net.minecraft.item.*;
 import net.minecraft.potion.*;
+import net.minecraft.tileentity.TileEntityType;
 import net.minecraft.util.*;
 import net.minecraft.util.Direction.Axis;
 import net.minecraft.util.math.shapes.VoxelShape;
@@ -59,6 +64,8 @@ public final class GeneralRegistrar {
     private static final DeferredRegister<Block> BLOCKS = DeferredRegister.create(ForgeRegistries.BLOCKS,
             ExampleMod.ID);
     private static final DeferredRegister<Item> ITEMS = DeferredRegister.create(ForgeRegistries.ITEMS, ExampleMod.ID);
+    private static final DeferredRegister<TileEntityType<?>> TILE_ENTITY_TYPES = DeferredRegister
+            .create(ForgeRegistries.TILE_ENTITIES, ExampleMod.ID);
     private static final DeferredRegister<Effect> EFFECTS = DeferredRegister.create(ForgeRegistries.POTIONS,
             ExampleMod.ID);
     private static final DeferredRegister<SoundEvent> SOUND_EVENTS = DeferredRegister
@@ -109,6 +116,15 @@ public final class GeneralRegistrar {
     public static final RegistryObject<RotatedInstrumentBlock> WARPED_STEM_DRUM = GeneralRegistrar.registerRotatedInstrumentBlock(
             "warped_stem_drum", () -> Blocks.WARPED_STEM);
 
+    public static final RegistryObject<SequencerBlock> SEQUENCER = GeneralRegistrar.registerBlock("sequencer",
+            () -> new SequencerBlock(AbstractBlock.Properties.from(Blocks.NOTE_BLOCK)),
+            b -> new BlockItem(b, GeneralRegistrar.DECORATIONS));
+
+    // Tile Entity Types
+    public static final RegistryObject<TileEntityType<SequencerTileEntity>> SEQUENCER_TILE = GeneralRegistrar.TILE_ENTITY_TYPES
+            .register("sequencer", () -> TileEntityType.Builder
+                    .create(SequencerTileEntity::new, GeneralRegistrar.SEQUENCER.get()).build(null));
+
     // Items
     public static final RegistryObject<InstrumentItem> DRUMSTICK = GeneralRegistrar.ITEMS.register("drumstick",
             () -> new InstrumentItem(300, GeneralRegistrar.DRUMSTICK_PROPERTIES));
@@ -183,9 +199,8 @@ public final class GeneralRegistrar {
     // Global Loot Modifiers
     public static final RegistryObject<GlobalLootModifierSerializer<ReplaceLootModifier>> REPLACE_LOOT = GeneralRegistrar.LOOT_MODIFIER_SERIALIZERS
             .register("replace", ReplaceLootModifier.Serializer::new);
-
-    // Slave Maps
-    private static final Map<InstrumentItem, Map<Block, SoundEvent>> ELEMENT_SOUNDS = new HashMap<>();
+    public static final RegistryObject<GlobalLootModifierSerializer<CompiledReplaceLootModifier>> COMPILED_REPLACE_LOOT = GeneralRegistrar.LOOT_MODIFIER_SERIALIZERS
+            .register("compiled_replace", CompiledReplaceLootModifier.Serializer::new);
 
     /**
      * Registers the {@link DeferredRegister}s to the event bus.
@@ -195,27 +210,12 @@ public final class GeneralRegistrar {
     protected static void register(final IEventBus modBus) {
         GeneralRegistrar.BLOCKS.register(modBus);
         GeneralRegistrar.ITEMS.register(modBus);
+        GeneralRegistrar.TILE_ENTITY_TYPES.register(modBus);
         GeneralRegistrar.EFFECTS.register(modBus);
         GeneralRegistrar.SOUND_EVENTS.register(modBus);
         GeneralRegistrar.LOOT_MODIFIER_SERIALIZERS.register(modBus);
     }
 
-    /**
-     * Handles any slave mappings between different vanilla registries.
-     */
-    protected static void registerSlaveMaps() {
-        GeneralRegistrar.ELEMENT_SOUNDS.put(GeneralRegistrar.DRUMSTICK.get(), Util.make(new HashMap<>(), map -> {
-            map.put(Blocks.OAK_LOG, GeneralRegistrar.DRUMSTICK_OAK_LOG_HIT.get());
-            map.put(Blocks.BIRCH_LOG, GeneralRegistrar.DRUMSTICK_BIRCH_LOG_HIT.get());
-            map.put(Blocks.SPRUCE_LOG, GeneralRegistrar.DRUMSTICK_SPRUCE_LOG_HIT.get());
-            map.put(Blocks.JUNGLE_LOG, GeneralRegistrar.DRUMSTICK_JUNGLE_LOG_HIT.get());
-            map.put(Blocks.ACACIA_LOG, GeneralRegistrar.DRUMSTICK_ACACIA_LOG_HIT.get());
-            map.put(Blocks.DARK_OAK_LOG, GeneralRegistrar.DRUMSTICK_DARK_OAK_LOG_HIT.get());
-            map.put(Blocks.CRIMSON_STEM, GeneralRegistrar.DRUMSTICK_CRIMSON_STEM_HIT.get());
-            map.put(Blocks.WARPED_STEM, GeneralRegistrar.DRUMSTICK_WARPED_STEM_HIT.get());
-        }));
-    }
-
     /**
      * @return A collection of registered blocks.
      */
@@ -267,15 +267,27 @@ public final class GeneralRegistrar {
     }
 
     /**
-     * Grabs the instrument element sound according to the block hit. Returns null
-     * if there is no sound present.
+     * Grabs the instrument element sound according to the block hit.
      *
      * @param  item     The item hitting the block
      * @param  hitBlock The block being hit
      * @return          The sound played if the block is hit, an optional otherwise
      */
     public static Optional<SoundEvent> getInstrumentElementSounds(final InstrumentItem item, final Block hitBlock) {
-        return Optional
-                .ofNullable(GeneralRegistrar.ELEMENT_SOUNDS.getOrDefault(item, Collections.emptyMap()).get(hitBlock));
+        return Optional.ofNullable(GeneralRegistrar.getInstrumentElementSound(item, hitBlock));
+    }
+
+    /**
+     * Grabs the instrument element sound according to the block hit. Returns null
+     * if there is no sound present. Does not allocate, so it is safe to call on
+     * every hit.
+     *
+     * @param  item     The item hitting the block
+     * @param  hitBlock The block being hit
+     * @return          The sound played if the block is hit, null otherwise
+     */
+    @Nullable
+    public static SoundEvent getInstrumentElementSound(final InstrumentItem item, final Block hitBlock) {
+        return InstrumentSoundManager.getSound(item, hitBlock);
     }
 }
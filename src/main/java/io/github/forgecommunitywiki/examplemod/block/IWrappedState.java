@@ -37,4 +37,14 @@ public interface IWrappedState {
      * @return Gets the currently wrapped state.
      */
     BlockState getWrappedState();
+
+    /**
+     * Gets the resolved properties of the wrapped state. Implementations called
+     * frequently should cache the result.
+     *
+     * @return The properties of the wrapped state
+     */
+    default WrappedProperties getWrappedProperties() {
+        return WrappedProperties.resolve(this.getWrappedState());
+    }
 }
@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.block;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import io.github.forgecommunitywiki.examplemod.config.ServerConfig;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import net.minecraft.block.BlockState;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.fml.event.server.FMLServerStoppedEvent;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
+
+/**
+ * Queues instruments triggered by redstone and plays them at the start of the
+ * next server tick. Positions are stored packed and deduplicated, so an
+ * instrument triggered multiple times within a tick is only played once. At
+ * most {@link ServerConfig#instrumentTriggerBudget} instruments are played per
+ * tick; the rest are kept in order for the following tick.
+ */
+public final class InstrumentTriggerQueue {
+
+    /**
+     * The packed positions of the triggered instruments in each world, in the
+     * order they were triggered.
+     */
+    private static final Map<RegistryKey<World>, LongLinkedOpenHashSet> QUEUED = new HashMap<>();
+
+    /**
+     * Queues the instrument at the position to be played.
+     *
+     * @param world The world the instrument is in
+     * @param pos   The position of the instrument
+     */
+    public static void enqueue(final ServerWorld world, final BlockPos pos) {
+        InstrumentTriggerQueue.QUEUED.computeIfAbsent(world.getDimensionKey(), key -> new LongLinkedOpenHashSet())
+                .add(pos.toLong());
+    }
+
+    /**
+     * Plays the queued instruments up to the configured budget.
+     *
+     * @param event The server tick event
+     */
+    public static void onServerTick(final TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.START || InstrumentTriggerQueue.QUEUED.isEmpty())
+            return;
+        final MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        int budget = ServerConfig.INSTANCE.instrumentTriggerBudget.get();
+        final BlockPos.Mutable pos = new BlockPos.Mutable();
+
+        final Iterator<Map.Entry<RegistryKey<World>, LongLinkedOpenHashSet>> worlds = InstrumentTriggerQueue.QUEUED
+                .entrySet().iterator();
+        while (worlds.hasNext() && budget > 0) {
+            final Map.Entry<RegistryKey<World>, LongLinkedOpenHashSet> entry = worlds.next();
+            final ServerWorld world = server.getWorld(entry.getKey());
+            final LongLinkedOpenHashSet queued = entry.getValue();
+            if (world != null)
+                for (; budget > 0 && !queued.isEmpty(); budget--) {
+                    pos.setPos(queued.removeFirstLong());
+                    if (!world.isBlockLoaded(pos))
+                        continue;
+                    final BlockState state = world.getBlockState(pos);
+                    if (state.getBlock() instanceof RotatedInstrumentBlock)
+                        ((RotatedInstrumentBlock) state.getBlock()).trigger(state, world, pos);
+                }
+            else
+                queued.clear();
+            if (queued.isEmpty())
+                worlds.remove();
+        }
+    }
+
+    /**
+     * Discards any queued instruments when the server stops.
+     *
+     * @param event The server stopped event
+     */
+    public static void onServerStopped(final FMLServerStoppedEvent event) {
+        InstrumentTriggerQueue.QUEUED.clear();
+    }
+}
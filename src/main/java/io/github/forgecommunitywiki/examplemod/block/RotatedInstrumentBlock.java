@@ -25,18 +25,29 @@
 package io.github.forgecommunitywiki.examplemod.block;
 
 import java.util.Map;
-import java.util.Optional;
 import java.util.function.Supplier;
 
+import javax.annotation.Nullable;
+
 import io.github.forgecommunitywiki.examplemod.GeneralRegistrar;
+import io.github.forgecommunitywiki.examplemod.capability.InstrumentIndex;
+import io.github.forgecommunitywiki.examplemod.capability.NoteStore;
 import io.github.forgecommunitywiki.examplemod.item.InstrumentItem;
+import io.github.forgecommunitywiki.examplemod.network.NetworkHandler;
+import io.github.forgecommunitywiki.examplemod.network.TuneNoteMessage;
+import io.github.forgecommunitywiki.examplemod.profiling.FlightEvents;
+import io.github.forgecommunitywiki.examplemod.sound.InstrumentRateLimiter;
+import io.github.forgecommunitywiki.examplemod.sound.NoteEventBatcher;
+import io.github.forgecommunitywiki.examplemod.sound.PitchTables;
+import io.github.forgecommunitywiki.examplemod.sound.TuningSystem;
 import io.github.forgecommunitywiki.examplemod.util.GeneralHelper;
+import io.github.forgecommunitywiki.examplemod.util.Metrics;
 import net.minecraft.block.*;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.fluid.FluidState;
 import net.minecraft.fluid.Fluids;
 import net.minecraft.item.BlockItemUseContext;
-import net.minecraft.particles.ParticleTypes;
+import net.minecraft.item.ItemStack;
 import net.minecraft.state.BooleanProperty;
 import net.minecraft.state.IntegerProperty;
 import net.minecraft.state.StateContainer.Builder;
@@ -45,10 +56,15 @@ import net.minecraft.util.*;
 import net.minecraft.util.Direction.Axis;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.BlockRayTraceResult;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.shapes.ISelectionContext;
 import net.minecraft.util.math.shapes.VoxelShape;
+import net.minecraft.util.math.shapes.VoxelShapes;
 import net.minecraft.world.*;
+import net.minecraft.world.server.ServerWorld;
 import net.minecraftforge.common.util.Constants;
+import net.minecraftforge.fml.network.PacketDistributor;
+import net.minecraftforge.registries.ForgeRegistries;
 
 /**
  * A block to allow certain sounds to be played when hit. The pitch can be
@@ -59,23 +75,65 @@ import net.minecraftforge.common.util.Constants;
 public class RotatedInstrumentBlock extends RotatedPillarBlock implements IWaterLoggable, IWrappedState {
 
     // Properties
+    /**
+     * The note of the instrument. Not part of the block state when
+     * {@link NoteStore#ENABLED compact notes} are enabled, so it should only be
+     * accessed through {@link #getNote} and {@link #setNote}.
+     */
     public static final IntegerProperty NOTE = BlockStateProperties.NOTE_0_24;
     public static final BooleanProperty WATERLOGGED = BlockStateProperties.WATERLOGGED;
+    public static final BooleanProperty POWERED = BlockStateProperties.POWERED;
+    /**
+     * The highest note of the instrument.
+     */
+    public static final int MAX_NOTE = 24;
+    /**
+     * The distance a note played at full volume can be heard from.
+     */
+    private static final double HEARING_DISTANCE = 16d;
 
     /**
-     * A map of voxel shapes depending on the current axis.
+     * The voxel shapes of the block indexed by the ordinal of the current axis.
+     * The axis is the only property that changes the shape, so the outline,
+     * collision, and ray trace lookups are all a single array read.
      */
-    protected final Map<Axis, VoxelShape> shapes;
+    private final VoxelShape[] shapes;
     /**
      * The block the instrument was made out of.
      */
     private final Supplier<BlockState> instrumentMaterial;
+    /**
+     * The tuning system of the instrument, or null to use the server default.
+     */
+    @Nullable
+    private final TuningSystem tuning;
+    /**
+     * The resolved properties of the instrument material, or null if not yet
+     * resolved.
+     */
+    @Nullable
+    private volatile WrappedProperties wrappedProperties;
 
     public RotatedInstrumentBlock(final Supplier<BlockState> instrumentMaterial, final VoxelShape shape,
             final Properties properties) {
         this(instrumentMaterial, GeneralHelper.createAxisShapes(shape), properties);
     }
 
+    /**
+     * Convenience constructor for instruments using the server default tuning
+     * system.
+     *
+     * @param instrumentMaterial The instrument material use to determine the
+     *                           block's flammability, burn time, and sound played
+     *                           when hit
+     * @param shapes             The shapes that represent how the model will look
+     * @param properties         The associated properties of the block
+     */
+    public RotatedInstrumentBlock(final Supplier<BlockState> instrumentMaterial, final Map<Axis, VoxelShape> shapes,
+            final Properties properties) {
+        this(instrumentMaterial, shapes, null, properties);
+    }
+
     /**
      * Convenience constructor for voxel shapes that are the same across multiple
      * instances.
@@ -84,29 +142,50 @@ public class RotatedInstrumentBlock extends RotatedPillarBlock implements IWater
      *                           block's flammability, burn time, and sound played
      *                           when hit
      * @param shapes             The shapes that represent how the model will look
+     * @param tuning             The tuning system of the instrument, or null to
+     *                           use the server default
      * @param properties         The associated properties of the block
      */
     public RotatedInstrumentBlock(final Supplier<BlockState> instrumentMaterial, final Map<Axis, VoxelShape> shapes,
-            final Properties properties) {
+            @Nullable final TuningSystem tuning, final Properties properties) {
         super(properties);
         this.instrumentMaterial = instrumentMaterial;
-        this.setDefaultState(this.getDefaultState().with(RotatedInstrumentBlock.NOTE, 0)
-                .with(RotatedInstrumentBlock.WATERLOGGED, false));
-        this.shapes = shapes;
+        this.tuning = tuning;
+        final BlockState defaultState = this.getDefaultState().with(RotatedInstrumentBlock.WATERLOGGED, false)
+                .with(RotatedInstrumentBlock.POWERED, false);
+        this.setDefaultState(NoteStore.ENABLED ? defaultState : defaultState.with(RotatedInstrumentBlock.NOTE, 0));
+        this.shapes = new VoxelShape[Axis.values().length];
+        for (final Axis axis : Axis.values())
+            this.shapes[axis.ordinal()] = shapes.getOrDefault(axis, VoxelShapes.fullCube());
     }
 
     @SuppressWarnings("deprecation") // Mojang deprecation, safe to override
     @Override
     public VoxelShape getShape(final BlockState state, final IBlockReader worldIn, final BlockPos pos,
             final ISelectionContext context) {
-        return this.shapes.getOrDefault(state.get(RotatedPillarBlock.AXIS),
-                super.getShape(state, worldIn, pos, context));
+        return this.shapes[state.get(RotatedPillarBlock.AXIS).ordinal()];
+    }
+
+    @SuppressWarnings("deprecation") // Mojang deprecation, safe to override
+    @Override
+    public VoxelShape getCollisionShape(final BlockState state, final IBlockReader worldIn, final BlockPos pos,
+            final ISelectionContext context) {
+        return this.shapes[state.get(RotatedPillarBlock.AXIS).ordinal()];
+    }
+
+    @SuppressWarnings("deprecation") // Mojang deprecation, safe to override
+    @Override
+    public VoxelShape getRayTraceShape(final BlockState state, final IBlockReader reader, final BlockPos pos,
+            final ISelectionContext context) {
+        return this.shapes[state.get(RotatedPillarBlock.AXIS).ordinal()];
     }
 
     @Override
     public BlockState getStateForPlacement(final BlockItemUseContext context) {
-        return super.getStateForPlacement(context).with(RotatedInstrumentBlock.WATERLOGGED,
-                context.getWorld().getFluidState(context.getPos()).getFluid() == Fluids.WATER);
+        return super.getStateForPlacement(context)
+                .with(RotatedInstrumentBlock.WATERLOGGED,
+                        context.getWorld().getFluidState(context.getPos()).getFluid() == Fluids.WATER)
+                .with(RotatedInstrumentBlock.POWERED, context.getWorld().isBlockPowered(context.getPos()));
     }
 
     /**
@@ -116,35 +195,217 @@ public class RotatedInstrumentBlock extends RotatedPillarBlock implements IWater
     @Override
     public ActionResultType onBlockActivated(final BlockState state, final World world, final BlockPos pos,
             final PlayerEntity player, final Hand hand, final BlockRayTraceResult hit) {
-        if (state.get(RotatedPillarBlock.AXIS) == hit.getFace().getAxis())
-            return Optional.of(player.getHeldItem(hand)).filter(s -> s.getItem() instanceof InstrumentItem)
-                    .flatMap(s -> ((InstrumentItem) s.getItem()).getInstrumentSound(s, this.getWrappedState()))
-                    .map(s -> this.playNote(state, world, pos, player, s)).orElseGet(() -> {
-                        final BlockState current = state.func_235896_a_(RotatedInstrumentBlock.NOTE);
-                        if (!world.isRemote)
-                            world.setBlockState(pos, current, Constants.BlockFlags.DEFAULT);
-                        return this.playNote(current, world, pos, player, GeneralRegistrar.DRUM_TEST_HIT.get());
-                    });
-        else
+        final long start = world.isRemote ? 0L : Metrics.INSTRUMENT_BLOCK_ACTIVATE.start();
+        final Object event = world.isRemote ? null : FlightEvents.beginInstrumentHit();
+        final ItemStack stack = player.getHeldItem(hand);
+        try {
+            return this.activate(state, world, pos, player, hand, hit, stack, event);
+        } finally {
+            Metrics.INSTRUMENT_BLOCK_ACTIVATE.stop(start);
+            FlightEvents.commitInstrumentHit(event, pos, this, stack);
+        }
+    }
+
+    /**
+     * Plays the instrument when hit on one of its faces with an instrument item
+     * that has a sound for it, or tunes the instrument otherwise.
+     *
+     * @param  state  The current block state
+     * @param  world  The world instance
+     * @param  pos    The current block position
+     * @param  player The player hitting the instrument
+     * @param  hand   The hand the player is using
+     * @param  hit    Where the instrument was hit
+     * @param  stack  The stack held in the hand
+     * @param  event  The handle of the recorded hit, or null if none
+     * @return        The result of hitting the instrument
+     */
+    private ActionResultType activate(final BlockState state, final World world, final BlockPos pos,
+            final PlayerEntity player, final Hand hand, final BlockRayTraceResult hit, final ItemStack stack,
+            @Nullable final Object event) {
+        if (state.get(RotatedPillarBlock.AXIS) != hit.getFace().getAxis())
             return super.onBlockActivated(state, world, pos, player, hand, hit);
+        if (!InstrumentRateLimiter.tryAcquire(player))
+            return ActionResultType.CONSUME;
+
+        final int note = this.getNote(state, world, pos);
+        final SoundEvent sound = stack.getItem() instanceof InstrumentItem
+                ? ((InstrumentItem) stack.getItem()).getInstrumentSoundOrNull(stack, this.getWrappedState())
+                : null;
+        if (!world.isRemote)
+            (sound != null ? Metrics.SOUND_LOOKUP_HITS : Metrics.SOUND_LOOKUP_MISSES).increment();
+        if (sound != null) {
+            FlightEvents.setInstrumentHitSound(event, sound);
+            return this.playNote(world, pos, player, sound, note);
+        }
+
+        final int next = (note + 1) % (RotatedInstrumentBlock.MAX_NOTE + 1);
+        final SoundEvent tuned = GeneralRegistrar.DRUM_TEST_HIT.get();
+        if (world.isRemote)
+            return this.playNote(world, pos, player, tuned, next);
+        this.tune(state, (ServerWorld) world, pos, player, next);
+        FlightEvents.setInstrumentHitSound(event, tuned);
+        return ActionResultType.CONSUME;
+    }
+
+    /**
+     * Gets the note of the instrument, either from the block state or the
+     * {@link NoteStore} of its chunk.
+     *
+     * @param  state The current block state
+     * @param  world The world instance
+     * @param  pos   The current block position
+     * @return       The note between 0 and 24
+     */
+    public int getNote(final BlockState state, final World world, final BlockPos pos) {
+        return NoteStore.ENABLED ? NoteStore.getNote(world, pos) : state.get(RotatedInstrumentBlock.NOTE);
+    }
+
+    /**
+     * Sets the note of the instrument, either within the block state or the
+     * {@link NoteStore} of its chunk. The note does not affect anything besides
+     * the instrument itself, so neighbors are not updated and the change is not
+     * sent to clients. The caller is responsible for syncing the note, such as
+     * through {@link #tune}.
+     *
+     * @param state The current block state
+     * @param world The world instance
+     * @param pos   The current block position
+     * @param note  The note between 0 and 24
+     */
+    public void setNote(final BlockState state, final World world, final BlockPos pos, final int note) {
+        if (NoteStore.ENABLED)
+            NoteStore.setNote(world, pos, note, false);
+        else
+            // Despite its name, this flag suppresses neighbor shape updates, so
+            // observers do not pulse. Without the other flags, neighbors and
+            // clients are not notified either
+            world.setBlockState(pos, state.with(RotatedInstrumentBlock.NOTE, note),
+                    Constants.BlockFlags.UPDATE_NEIGHBORS);
+    }
+
+    /**
+     * Tunes the instrument to a note and sends a single {@link TuneNoteMessage}
+     * to each player watching it. Players within hearing distance play the tuned
+     * note, while the player tuning the instrument has already played it.
+     *
+     * @param state  The current block state
+     * @param world  The world instance
+     * @param pos    The current block position
+     * @param player The player tuning the instrument, or null if none
+     * @param note   The note between 0 and 24
+     */
+    public void tune(final BlockState state, final ServerWorld world, final BlockPos pos,
+            @Nullable final PlayerEntity player, final int note) {
+        this.setNote(state, world, pos, note);
+        final SoundEvent sound = GeneralRegistrar.DRUM_TEST_HIT.get();
+        final double rangeSq = RotatedInstrumentBlock.HEARING_DISTANCE * RotatedInstrumentBlock.HEARING_DISTANCE;
+        world.getChunkProvider().chunkManager.getTrackingPlayers(new ChunkPos(pos), false)
+                .forEach(tracking -> NetworkHandler.CHANNEL.send(PacketDistributor.PLAYER.with(() -> tracking),
+                        new TuneNoteMessage(pos, note, tracking != player
+                                && tracking.getDistanceSq(pos.getX() + 0.5d, pos.getY() + 0.5d,
+                                        pos.getZ() + 0.5d) <= rangeSq ? sound : null)));
+    }
+
+    /**
+     * Gets the pitch of a note within the tuning system of the instrument.
+     *
+     * @param  note The note between 0 and 24
+     * @return      The pitch to play the sound at
+     */
+    public float getPitch(final int note) {
+        return PitchTables.getPitch(this.tuning, note);
+    }
+
+    /**
+     * Adds the instrument to the {@link InstrumentIndex} of its chunk, and
+     * restores its note within the {@link NoteStore} if moved by a piston.
+     */
+    @SuppressWarnings("deprecation") // Mojang deprecation, safe to override
+    @Override
+    public void onBlockAdded(final BlockState state, final World world, final BlockPos pos, final BlockState oldState,
+            final boolean isMoving) {
+        super.onBlockAdded(state, world, pos, oldState, isMoving);
+        if (!oldState.isIn(this))
+            InstrumentIndex.add(world, pos);
+        if (oldState.isIn(Blocks.MOVING_PISTON))
+            NoteStore.onMoved(world, pos);
+    }
+
+    /**
+     * Removes the instrument from the {@link InstrumentIndex} of its chunk and
+     * resets its note within the {@link NoteStore}.
+     */
+    @SuppressWarnings("deprecation") // Mojang deprecation, safe to override
+    @Override
+    public void onReplaced(final BlockState state, final World world, final BlockPos pos, final BlockState newState,
+            final boolean isMoving) {
+        super.onReplaced(state, world, pos, newState, isMoving);
+        if (!newState.isIn(this)) {
+            InstrumentIndex.remove(world, pos);
+            NoteStore.setNote(world, pos, 0);
+        }
+    }
+
+    /**
+     * Queues the instrument to be played when it becomes powered, similar to a
+     * note block.
+     */
+    @SuppressWarnings("deprecation") // Mojang deprecation, safe to override
+    @Override
+    public void neighborChanged(final BlockState state, final World world, final BlockPos pos, final Block block,
+            final BlockPos fromPos, final boolean isMoving) {
+        if (world.isRemote)
+            return;
+        final boolean powered = world.isBlockPowered(pos);
+        if (powered == state.get(RotatedInstrumentBlock.POWERED))
+            return;
+        if (powered)
+            InstrumentTriggerQueue.enqueue((ServerWorld) world, pos);
+        world.setBlockState(pos, state.with(RotatedInstrumentBlock.POWERED, powered),
+                Constants.BlockFlags.BLOCK_UPDATE);
+    }
+
+    /**
+     * Plays the instrument as if hit by a drumstick. Called from the
+     * {@link InstrumentTriggerQueue} when the block was powered.
+     *
+     * @param state The current block state
+     * @param world The world instance
+     * @param pos   The current block position
+     */
+    public void trigger(final BlockState state, final World world, final BlockPos pos) {
+        this.trigger(state, world, pos, this.getNote(state, world, pos));
+    }
+
+    /**
+     * Plays the instrument at the specified note as if hit by a drumstick.
+     *
+     * @param state The current block state
+     * @param world The world instance
+     * @param pos   The current block position
+     * @param note  The note to play between 0 and 24
+     */
+    public void trigger(final BlockState state, final World world, final BlockPos pos, final int note) {
+        final SoundEvent sound = GeneralRegistrar.getInstrumentElementSound(GeneralRegistrar.DRUMSTICK.get(),
+                this.getWrappedState().getBlock());
+        this.playNote(world, pos, null, sound != null ? sound : GeneralRegistrar.DRUM_TEST_HIT.get(), note);
     }
 
     /**
      * Plays the note and spawns particles on top of the block.
      *
-     * @param  state  The current block state
      * @param  world  The world instance
      * @param  pos    The current block position
-     * @param  player The player hitting the block
+     * @param  player The player hitting the block, or null if triggered without
+     *                one
      * @param  sound  The sound the block makes
+     * @param  note   The note to play between 0 and 24
      * @return        A successful or consumed result
      */
-    private ActionResultType playNote(final BlockState state, final World world, final BlockPos pos,
-            final PlayerEntity player, final SoundEvent sound) {
-        final int pitch = state.get(RotatedInstrumentBlock.NOTE);
-        world.playSound(player, pos, sound, SoundCategory.BLOCKS, 1.0f, (float) Math.pow(2d, (pitch - 12) / 12d));
-        world.addParticle(ParticleTypes.NOTE, pos.getX() + 0.5d, pos.getY() + 1.2d, pos.getZ() + 0.5d, pitch / 24d, 0d,
-                0d);
+    private ActionResultType playNote(final World world, final BlockPos pos, @Nullable final PlayerEntity player,
+            final SoundEvent sound, final int note) {
+        NoteEventBatcher.play(world, player, pos, sound, SoundCategory.BLOCKS, 1.0f, this.getPitch(note), note);
         return ActionResultType.func_233537_a_(world.isRemote);
     }
 
@@ -171,11 +432,14 @@ public class RotatedInstrumentBlock extends RotatedPillarBlock implements IWater
     }
 
     /**
-     * Adds additional properties to the block state.
+     * Adds additional properties to the block state. The note is left out when
+     * compact notes are enabled.
      */
     @Override
     protected void fillStateContainer(final Builder<Block, BlockState> builder) {
-        super.fillStateContainer(builder.add(RotatedInstrumentBlock.NOTE, RotatedInstrumentBlock.WATERLOGGED));
+        if (!NoteStore.ENABLED)
+            builder.add(RotatedInstrumentBlock.NOTE);
+        super.fillStateContainer(builder.add(RotatedInstrumentBlock.WATERLOGGED, RotatedInstrumentBlock.POWERED));
     }
 
     /**
@@ -184,7 +448,7 @@ public class RotatedInstrumentBlock extends RotatedPillarBlock implements IWater
     @Override
     public int getFlammability(final BlockState state, final IBlockReader world, final BlockPos pos,
             final Direction face) {
-        return this.getWrappedState().getFlammability(world, pos, face);
+        return this.getWrappedProperties().getFlammability();
     }
 
     /**
@@ -193,9 +457,30 @@ public class RotatedInstrumentBlock extends RotatedPillarBlock implements IWater
     @Override
     public int getFireSpreadSpeed(final BlockState state, final IBlockReader world, final BlockPos pos,
             final Direction face) {
-        return this.getWrappedState().getFireSpreadSpeed(world, pos, face);
+        return this.getWrappedProperties().getFireSpreadSpeed();
     }
 
     @Override
     public BlockState getWrappedState() { return this.instrumentMaterial.get(); }
+
+    @Override
+    public WrappedProperties getWrappedProperties() {
+        WrappedProperties properties = this.wrappedProperties;
+        if (properties == null)
+            this.wrappedProperties = properties = WrappedProperties.resolve(this.getWrappedState());
+        return properties;
+    }
+
+    /**
+     * Resolves the properties of the instrument material for every instrument.
+     * Should be called whenever the properties could have changed, such as when
+     * the registries are frozen. Burn times are looked up on demand instead, as
+     * they depend on tags.
+     */
+    public static void resolveWrappedProperties() {
+        for (final Block block : ForgeRegistries.BLOCKS.getValues())
+            if (block instanceof RotatedInstrumentBlock)
+                ((RotatedInstrumentBlock) block).wrappedProperties = WrappedProperties
+                        .resolve(((RotatedInstrumentBlock) block).getWrappedState());
+    }
 }
@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.block;
+
+import io.github.forgecommunitywiki.examplemod.tileentity.SequencerTileEntity;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.ActionResultType;
+import net.minecraft.util.Hand;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.BlockRayTraceResult;
+import net.minecraft.util.text.TranslationTextComponent;
+import net.minecraft.world.IBlockReader;
+import net.minecraft.world.World;
+
+/**
+ * A block which plays a loop of notes on nearby instruments. Using the block
+ * starts or stops the loop while sneaking changes the tempo.
+ */
+public class SequencerBlock extends Block {
+
+    public SequencerBlock(final Properties properties) {
+        super(properties);
+    }
+
+    @Override
+    public boolean hasTileEntity(final BlockState state) {
+        return true;
+    }
+
+    @Override
+    public TileEntity createTileEntity(final BlockState state, final IBlockReader world) {
+        return new SequencerTileEntity();
+    }
+
+    /**
+     * Starts or stops the sequencer, or changes its tempo when sneaking.
+     */
+    @SuppressWarnings("deprecation") // Mojang deprecation, safe to override
+    @Override
+    public ActionResultType onBlockActivated(final BlockState state, final World world, final BlockPos pos,
+            final PlayerEntity player, final Hand hand, final BlockRayTraceResult hit) {
+        if (!world.isRemote) {
+            final TileEntity te = world.getTileEntity(pos);
+            if (te instanceof SequencerTileEntity) {
+                final SequencerTileEntity sequencer = (SequencerTileEntity) te;
+                if (player.isSneaking())
+                    player.sendStatusMessage(new TranslationTextComponent(this.getTranslationKey() + ".tempo",
+                            sequencer.cycleTempo()), true);
+                else
+                    player.sendStatusMessage(new TranslationTextComponent(
+                            this.getTranslationKey() + (sequencer.toggle() ? ".started" : ".stopped")), true);
+            }
+        }
+        return ActionResultType.func_233537_a_(world.isRemote);
+    }
+}
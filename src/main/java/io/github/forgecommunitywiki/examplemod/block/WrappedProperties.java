@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.block;
+
+import io.github.forgecommunitywiki.examplemod.util.BurnTimeCache;
+import net.minecraft.block.BlockState;
+import net.minecraft.item.Item;
+import net.minecraft.util.Direction;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.EmptyBlockReader;
+
+/**
+ * The properties of a wrapped state resolved ahead of time, so that hooks
+ * called frequently, such as by fire ticks, read a field instead of calling
+ * into the wrapped block each time. The properties are resolved as if the
+ * state was on its own, so wrapped blocks whose properties depend on their
+ * surroundings will not be reflected.
+ */
+public final class WrappedProperties {
+
+    private final int flammability;
+    private final int fireSpreadSpeed;
+    /**
+     * The item of the wrapped block, whose burn time is looked up on demand.
+     */
+    private final Item item;
+
+    private WrappedProperties(final int flammability, final int fireSpreadSpeed, final Item item) {
+        this.flammability = flammability;
+        this.fireSpreadSpeed = fireSpreadSpeed;
+        this.item = item;
+    }
+
+    /**
+     * Resolves the properties of the wrapped state. The burn time is not resolved
+     * here as it depends on tags, which may not be bound yet, such as when the
+     * registries are frozen.
+     *
+     * @param  state The wrapped state
+     * @return       The resolved properties
+     */
+    public static WrappedProperties resolve(final BlockState state) {
+        return new WrappedProperties(state.getFlammability(EmptyBlockReader.INSTANCE, BlockPos.ZERO, Direction.UP),
+                state.getFireSpreadSpeed(EmptyBlockReader.INSTANCE, BlockPos.ZERO, Direction.UP),
+                state.getBlock().asItem());
+    }
+
+    public int getFlammability() { return this.flammability; }
+
+    public int getFireSpreadSpeed() { return this.fireSpreadSpeed; }
+
+    /**
+     * @return The burn time of the wrapped block's item from the
+     *         {@link BurnTimeCache}, or -1 to use the default behavior.
+     */
+    public int getBurnTime() { return BurnTimeCache.getBurnTime(this.item); }
+}
@@ -0,0 +1,207 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.capability;
+
+import javax.annotation.Nullable;
+
+import io.github.forgecommunitywiki.examplemod.ExampleMod;
+import io.github.forgecommunitywiki.examplemod.block.RotatedInstrumentBlock;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.nbt.INBT;
+import net.minecraft.util.Direction;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraftforge.common.capabilities.*;
+import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.event.AttachCapabilitiesEvent;
+import net.minecraftforge.event.world.ChunkEvent;
+
+/**
+ * An index of the positions of every {@link RotatedInstrumentBlock} within a
+ * chunk on the server. Positions are stored packed within a primitive set so
+ * that looking up instruments near a position only visits the instruments in
+ * the surrounding chunks instead of every block within the volume.
+ *
+ * <p>
+ * The index is not saved. It is rebuilt when the chunk is loaded, skipping
+ * any section whose palette does not contain an instrument, and kept up to
+ * date as instruments are placed and broken.
+ */
+public final class InstrumentIndex {
+
+    @CapabilityInject(InstrumentIndex.class)
+    public static Capability<InstrumentIndex> CAPABILITY = null;
+    private static final ResourceLocation NAME = new ResourceLocation(ExampleMod.ID, "instrument_index");
+
+    private final LongOpenHashSet positions = new LongOpenHashSet();
+
+    /**
+     * Registers the capability. The index is rebuilt on load, so it does not
+     * have any storage.
+     */
+    public static void register() {
+        CapabilityManager.INSTANCE.register(InstrumentIndex.class, new Capability.IStorage<InstrumentIndex>() {
+
+            @Nullable
+            @Override
+            public INBT writeNBT(final Capability<InstrumentIndex> capability, final InstrumentIndex instance,
+                    final Direction side) {
+                return null;
+            }
+
+            @Override
+            public void readNBT(final Capability<InstrumentIndex> capability, final InstrumentIndex instance,
+                    final Direction side, final INBT nbt) {}
+        }, InstrumentIndex::new);
+    }
+
+    /**
+     * Attaches the index to all chunks on the server.
+     *
+     * @param event The attach capabilities event
+     */
+    public static void attach(final AttachCapabilitiesEvent<Chunk> event) {
+        if (event.getObject().getWorld().isRemote)
+            return;
+        final LazyOptional<InstrumentIndex> index = LazyOptional.of(InstrumentIndex::new);
+        event.addCapability(InstrumentIndex.NAME, new ICapabilityProvider() {
+
+            @Override
+            public <T> LazyOptional<T> getCapability(final Capability<T> cap, @Nullable final Direction side) {
+                return InstrumentIndex.CAPABILITY.orEmpty(cap, index);
+            }
+        });
+        event.addListener(index::invalidate);
+    }
+
+    /**
+     * Rebuilds the index of the chunk once it has loaded.
+     *
+     * @param event The chunk load event
+     */
+    public static void onChunkLoad(final ChunkEvent.Load event) {
+        if (event.getChunk() instanceof Chunk && !((Chunk) event.getChunk()).getWorld().isRemote)
+            InstrumentIndex.get((Chunk) event.getChunk()).ifPresent(index -> index.rebuild((Chunk) event.getChunk()));
+    }
+
+    /**
+     * Gets the index of the chunk.
+     *
+     * @param  chunk The chunk
+     * @return       The index, or an empty optional if the chunk is on the client
+     */
+    public static LazyOptional<InstrumentIndex> get(final Chunk chunk) {
+        return chunk.getCapability(InstrumentIndex.CAPABILITY);
+    }
+
+    /**
+     * Adds the position of an instrument to the index of its chunk.
+     *
+     * @param world The world the instrument is in
+     * @param pos   The position of the instrument
+     */
+    public static void add(final World world, final BlockPos pos) {
+        if (!world.isRemote)
+            InstrumentIndex.get(world.getChunkAt(pos)).ifPresent(index -> index.positions.add(pos.toLong()));
+    }
+
+    /**
+     * Removes the position of an instrument from the index of its chunk.
+     *
+     * @param world The world the instrument was in
+     * @param pos   The position of the instrument
+     */
+    public static void remove(final World world, final BlockPos pos) {
+        if (!world.isRemote)
+            InstrumentIndex.get(world.getChunkAt(pos)).ifPresent(index -> index.positions.remove(pos.toLong()));
+    }
+
+    /**
+     * Gets the packed positions of all instruments within the radius of a
+     * position. Chunks that are not loaded are skipped.
+     *
+     * @param  world  The world to search
+     * @param  center The position to search around
+     * @param  radius The maximum distance of an instrument from the center
+     * @return        A list of packed positions, see {@link BlockPos#fromLong}
+     */
+    public static LongList getInstruments(final World world, final BlockPos center, final int radius) {
+        final LongList instruments = new LongArrayList();
+        final long radiusSq = (long) radius * radius;
+        for (int chunkX = (center.getX() - radius) >> 4; chunkX <= (center.getX() + radius) >> 4; chunkX++)
+            for (int chunkZ = (center.getZ() - radius) >> 4; chunkZ <= (center.getZ() + radius) >> 4; chunkZ++) {
+                final Chunk chunk = world.getChunkProvider().getChunk(chunkX, chunkZ, false);
+                if (chunk == null)
+                    continue;
+                InstrumentIndex.get(chunk).ifPresent(index -> {
+                    final LongIterator iterator = index.positions.iterator();
+                    while (iterator.hasNext()) {
+                        final long pos = iterator.nextLong();
+                        final long x = BlockPos.unpackX(pos) - center.getX();
+                        final long y = BlockPos.unpackY(pos) - center.getY();
+                        final long z = BlockPos.unpackZ(pos) - center.getZ();
+                        if (x * x + y * y + z * z <= radiusSq)
+                            instruments.add(pos);
+                    }
+                });
+            }
+        return instruments;
+    }
+
+    /**
+     * Rebuilds the index from the blocks within the chunk. Sections whose palette
+     * does not contain an instrument are skipped.
+     *
+     * @param chunk The chunk to index
+     */
+    private void rebuild(final Chunk chunk) {
+        this.positions.clear();
+        final int baseX = chunk.getPos().getXStart(), baseZ = chunk.getPos().getZStart();
+        for (final ChunkSection section : chunk.getSections()) {
+            if (ChunkSection.isEmpty(section)
+                    || !section.func_235962_a_(state -> state.getBlock() instanceof RotatedInstrumentBlock))
+                continue;
+            final int baseY = section.getYLocation();
+            for (int y = 0; y < 16; y++)
+                for (int z = 0; z < 16; z++)
+                    for (int x = 0; x < 16; x++)
+                        if (section.getBlockState(x, y, z).getBlock() instanceof RotatedInstrumentBlock)
+                            this.positions.add(BlockPos.pack(baseX + x, baseY + y, baseZ + z));
+        }
+    }
+
+    /**
+     * @return The number of instruments within the chunk.
+     */
+    public int size() {
+        return this.positions.size();
+    }
+}
@@ -0,0 +1,454 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.capability;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import io.github.forgecommunitywiki.examplemod.ExampleMod;
+import io.github.forgecommunitywiki.examplemod.block.RotatedInstrumentBlock;
+import io.github.forgecommunitywiki.examplemod.network.ChunkNotesMessage;
+import io.github.forgecommunitywiki.examplemod.network.NetworkHandler;
+import io.github.forgecommunitywiki.examplemod.network.SetNoteMessage;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import net.minecraft.block.PistonBlockStructureHelper;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.INBT;
+import net.minecraft.nbt.ListNBT;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.Direction;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.common.capabilities.*;
+import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.event.AttachCapabilitiesEvent;
+import net.minecraftforge.event.world.ChunkWatchEvent;
+import net.minecraftforge.event.world.PistonEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.network.PacketDistributor;
+
+/**
+ * The notes of every {@link RotatedInstrumentBlock} within a chunk, used
+ * instead of a block state property when compact notes are enabled. Keeping the
+ * note out of the block state reduces each instrument from 300 block states to
+ * 12, and instruments tuned to different notes no longer grow the palette of
+ * their section.
+ *
+ * <p>
+ * Notes are stored as a byte per block within arrays allocated per section
+ * once a note other than zero is set, and freed once every note within the
+ * section is zero again. Only the notes other than zero are saved and synced.
+ * The server syncs the store when a player starts watching the chunk and each
+ * note as it changes. Notes of instruments pushed or pulled by a piston are
+ * carried to where the instrument lands.
+ *
+ * <p>
+ * Compact notes change the block states of the mod, so they are enabled for
+ * the entire game by the {@code examplemod.compactNotes} system property. The
+ * client and server must agree on the property to connect. The block state
+ * still holds the axis, whether the instrument is waterlogged, and whether it
+ * is powered, as the last is needed to only trigger the instrument when it
+ * first becomes powered.
+ */
+public final class NoteStore {
+
+    /**
+     * If notes are stored within the chunk rather than the block state.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("examplemod.compactNotes");
+
+    @CapabilityInject(NoteStore.class)
+    public static Capability<NoteStore> CAPABILITY = null;
+    private static final ResourceLocation NAME = new ResourceLocation(ExampleMod.ID, "note_store");
+    private static final int SECTIONS = 16;
+    private static final int SECTION_VOLUME = 16 * 16 * 16;
+    /**
+     * The number of ticks a note waits for its instrument to land after being
+     * moved by a piston, which is longer than any piston takes to move.
+     */
+    private static final long MOVE_TIMEOUT = 10L;
+    /**
+     * The notes of the instruments being moved by pistons within each world,
+     * keyed by the position they land on. Each value holds the game time the
+     * move started shifted above the note, which is never zero.
+     */
+    private static final Map<RegistryKey<World>, Long2LongOpenHashMap> MOVING = new HashMap<>();
+
+    /**
+     * The notes of each section indexed by {@link #index}, or null if every
+     * note within the section is zero.
+     */
+    private final byte[][] sections = new byte[NoteStore.SECTIONS][];
+    /**
+     * The number of notes other than zero within each section.
+     */
+    private final short[] counts = new short[NoteStore.SECTIONS];
+
+    /**
+     * Registers the capability if compact notes are enabled.
+     */
+    public static void register() {
+        if (!NoteStore.ENABLED)
+            return;
+        CapabilityManager.INSTANCE.register(NoteStore.class, new Capability.IStorage<NoteStore>() {
+
+            @Override
+            public INBT writeNBT(final Capability<NoteStore> capability, final NoteStore instance,
+                    final Direction side) {
+                return instance.write();
+            }
+
+            @Override
+            public void readNBT(final Capability<NoteStore> capability, final NoteStore instance,
+                    final Direction side, final INBT nbt) {
+                instance.read((ListNBT) nbt);
+            }
+        }, NoteStore::new);
+    }
+
+    /**
+     * Attaches the store to all chunks if compact notes are enabled. Only the
+     * stores on the server are saved.
+     *
+     * @param event The attach capabilities event
+     */
+    public static void attach(final AttachCapabilitiesEvent<Chunk> event) {
+        if (!NoteStore.ENABLED)
+            return;
+        final NoteStore store = new NoteStore();
+        final LazyOptional<NoteStore> optional = LazyOptional.of(() -> store);
+        event.addCapability(NoteStore.NAME, new ICapabilitySerializable<INBT>() {
+
+            @Override
+            public <T> LazyOptional<T> getCapability(final Capability<T> cap, @Nullable final Direction side) {
+                return NoteStore.CAPABILITY.orEmpty(cap, optional);
+            }
+
+            @Override
+            public INBT serializeNBT() {
+                return NoteStore.CAPABILITY.writeNBT(store, null);
+            }
+
+            @Override
+            public void deserializeNBT(final INBT nbt) {
+                NoteStore.CAPABILITY.readNBT(store, null, nbt);
+            }
+        });
+        event.addListener(optional::invalidate);
+    }
+
+    /**
+     * Sends the notes of a chunk to a player who starts watching it.
+     *
+     * @param event The chunk watch event
+     */
+    public static void onChunkWatch(final ChunkWatchEvent.Watch event) {
+        final Chunk chunk = event.getWorld().getChunkProvider().getChunk(event.getPos().x, event.getPos().z, false);
+        if (chunk != null)
+            NoteStore.get(chunk).filter(store -> !store.isEmpty())
+                    .ifPresent(store -> NetworkHandler.CHANNEL.send(PacketDistributor.PLAYER.with(event::getPlayer),
+                            new ChunkNotesMessage(event.getPos(), store)));
+    }
+
+    /**
+     * Holds onto the notes of the instruments a piston is about to move, as the
+     * notes are cleared once the instruments are replaced by moving pistons.
+     *
+     * @param event The piston pre event
+     */
+    public static void onPistonMove(final PistonEvent.Pre event) {
+        if (!NoteStore.ENABLED || !(event.getWorld() instanceof World) || event.getWorld().isRemote())
+            return;
+        final World world = (World) event.getWorld();
+        final PistonBlockStructureHelper helper = event.getStructureHelper();
+        if (helper == null || !helper.canMove())
+            return;
+
+        final long now = world.getGameTime();
+        final Long2LongOpenHashMap moving = NoteStore.MOVING.computeIfAbsent(world.getDimensionKey(),
+                key -> new Long2LongOpenHashMap());
+        moving.long2LongEntrySet().removeIf(entry -> now - (entry.getLongValue() >> 8) > NoteStore.MOVE_TIMEOUT);
+        final Direction direction = event.getPistonMoveType().isExtend ? event.getDirection()
+                : event.getDirection().getOpposite();
+        for (final BlockPos pos : helper.getBlocksToMove())
+            if (world.getBlockState(pos).getBlock() instanceof RotatedInstrumentBlock) {
+                final int note = NoteStore.getNote(world, pos);
+                if (note != 0)
+                    moving.put(pos.offset(direction).toLong(), now << 8 | note);
+            }
+    }
+
+    /**
+     * Restores the note of an instrument once it has landed after being moved by
+     * a piston.
+     *
+     * @param world The world the instrument is in
+     * @param pos   The position the instrument landed on
+     */
+    public static void onMoved(final World world, final BlockPos pos) {
+        final Long2LongOpenHashMap moving = NoteStore.MOVING.get(world.getDimensionKey());
+        if (world.isRemote || moving == null)
+            return;
+        final long value = moving.remove(pos.toLong());
+        if (value != 0L && world.getGameTime() - (value >> 8) <= NoteStore.MOVE_TIMEOUT)
+            NoteStore.setNote(world, pos, (int) (value & 0xFF));
+    }
+
+    /**
+     * Discards the notes being moved within a world once it is unloaded.
+     *
+     * @param event The world unload event
+     */
+    public static void onWorldUnload(final WorldEvent.Unload event) {
+        if (event.getWorld() instanceof World && !event.getWorld().isRemote())
+            NoteStore.MOVING.remove(((World) event.getWorld()).getDimensionKey());
+    }
+
+    /**
+     * Gets the store of the chunk.
+     *
+     * @param  chunk The chunk
+     * @return       The store, or an empty optional if compact notes are disabled
+     */
+    public static LazyOptional<NoteStore> get(final Chunk chunk) {
+        return NoteStore.ENABLED ? chunk.getCapability(NoteStore.CAPABILITY) : LazyOptional.empty();
+    }
+
+    /**
+     * Gets the note of the instrument at the position.
+     *
+     * @param  world The world the instrument is in
+     * @param  pos   The position of the instrument
+     * @return       The note between 0 and 24
+     */
+    public static int getNote(final World world, final BlockPos pos) {
+        return NoteStore.get(world.getChunkAt(pos)).map(store -> store.get(pos)).orElse(0);
+    }
+
+    /**
+     * Sets the note of the instrument at the position. On the server, the chunk
+     * is marked to be saved and the note is synced to every player watching the
+     * chunk.
+     *
+     * @param world The world the instrument is in
+     * @param pos   The position of the instrument
+     * @param note  The note between 0 and 24
+     */
+    public static void setNote(final World world, final BlockPos pos, final int note) {
+        NoteStore.setNote(world, pos, note, true);
+    }
+
+    /**
+     * Sets the note of the instrument at the position. On the server, the chunk
+     * is marked to be saved.
+     *
+     * @param world The world the instrument is in
+     * @param pos   The position of the instrument
+     * @param note  The note between 0 and 24
+     * @param sync  If the note should be synced to every player watching the
+     *              chunk, otherwise the caller is responsible for syncing it
+     */
+    public static void setNote(final World world, final BlockPos pos, final int note, final boolean sync) {
+        final Chunk chunk = world.getChunkAt(pos);
+        NoteStore.get(chunk).ifPresent(store -> {
+            if (!store.set(pos, note) || world.isRemote)
+                return;
+            chunk.markDirty();
+            if (sync)
+                NetworkHandler.CHANNEL.send(PacketDistributor.TRACKING_CHUNK.with(() -> chunk),
+                        new SetNoteMessage(pos, note));
+        });
+    }
+
+    /**
+     * Gets the index of a position within the array of its section.
+     */
+    private static int index(final BlockPos pos) {
+        return (pos.getY() & 15) << 8 | (pos.getZ() & 15) << 4 | pos.getX() & 15;
+    }
+
+    /**
+     * Gets the note at the position.
+     *
+     * @param  pos The position
+     * @return     The note between 0 and 24
+     */
+    public int get(final BlockPos pos) {
+        final int section = pos.getY() >> 4;
+        if (section < 0 || section >= NoteStore.SECTIONS || this.sections[section] == null)
+            return 0;
+        return this.sections[section][NoteStore.index(pos)];
+    }
+
+    /**
+     * Sets the note at the position.
+     *
+     * @param  pos  The position
+     * @param  note The note between 0 and 24
+     * @return      True if the note has changed, false otherwise
+     */
+    public boolean set(final BlockPos pos, final int note) {
+        final int section = pos.getY() >> 4;
+        if (section < 0 || section >= NoteStore.SECTIONS)
+            return false;
+        return this.set(section, NoteStore.index(pos), note);
+    }
+
+    private boolean set(final int section, final int index, final int note) {
+        byte[] notes = this.sections[section];
+        if (notes == null) {
+            if (note == 0)
+                return false;
+            this.sections[section] = notes = new byte[NoteStore.SECTION_VOLUME];
+        }
+        final int previous = notes[index];
+        if (previous == note)
+            return false;
+        notes[index] = (byte) note;
+        if (previous == 0)
+            this.counts[section]++;
+        else if (note == 0 && --this.counts[section] == 0)
+            this.sections[section] = null;
+        return true;
+    }
+
+    /**
+     * Checks whether every note within the chunk is zero.
+     *
+     * @return True if there are no notes to store, false otherwise
+     */
+    public boolean isEmpty() {
+        for (final byte[] notes : this.sections)
+            if (notes != null)
+                return false;
+        return true;
+    }
+
+    /**
+     * Replaces the notes of this store with those of another.
+     *
+     * @param other The store to copy
+     */
+    public void copy(final NoteStore other) {
+        for (int section = 0; section < NoteStore.SECTIONS; section++) {
+            this.sections[section] = other.sections[section] != null
+                    ? Arrays.copyOf(other.sections[section], NoteStore.SECTION_VOLUME)
+                    : null;
+            this.counts[section] = other.counts[section];
+        }
+    }
+
+    /**
+     * Writes the notes other than zero of each section. Each note is packed
+     * into an int holding its index within the section and the note.
+     *
+     * @return The notes of the chunk
+     */
+    private ListNBT write() {
+        final ListNBT list = new ListNBT();
+        for (int section = 0; section < NoteStore.SECTIONS; section++) {
+            final byte[] notes = this.sections[section];
+            if (notes == null)
+                continue;
+            final int[] packed = new int[this.counts[section]];
+            for (int index = 0, i = 0; index < NoteStore.SECTION_VOLUME; index++)
+                if (notes[index] != 0)
+                    packed[i++] = index << 8 | notes[index];
+            final CompoundNBT nbt = new CompoundNBT();
+            nbt.putByte("Y", (byte) section);
+            nbt.putIntArray("Notes", packed);
+            list.add(nbt);
+        }
+        return list;
+    }
+
+    /**
+     * Reads the notes written by {@link #write()}.
+     *
+     * @param list The notes of the chunk
+     */
+    private void read(final ListNBT list) {
+        Arrays.fill(this.sections, null);
+        Arrays.fill(this.counts, (short) 0);
+        for (int i = 0; i < list.size(); i++) {
+            final CompoundNBT nbt = list.getCompound(i);
+            final int section = nbt.getByte("Y");
+            if (section < 0 || section >= NoteStore.SECTIONS)
+                continue;
+            for (final int packed : nbt.getIntArray("Notes"))
+                this.set(section, packed >>> 8 & NoteStore.SECTION_VOLUME - 1,
+                        Math.min(packed & 0xFF, RotatedInstrumentBlock.MAX_NOTE));
+        }
+    }
+
+    /**
+     * Writes the notes other than zero to the buffer.
+     *
+     * @param buffer The buffer to write to
+     */
+    public void encode(final PacketBuffer buffer) {
+        int present = 0;
+        for (int section = 0; section < NoteStore.SECTIONS; section++)
+            if (this.sections[section] != null)
+                present |= 1 << section;
+        buffer.writeShort(present);
+        for (int section = 0; section < NoteStore.SECTIONS; section++) {
+            final byte[] notes = this.sections[section];
+            if (notes == null)
+                continue;
+            buffer.writeVarInt(this.counts[section]);
+            for (int index = 0; index < NoteStore.SECTION_VOLUME; index++)
+                if (notes[index] != 0) {
+                    buffer.writeShort(index);
+                    buffer.writeByte(notes[index]);
+                }
+        }
+    }
+
+    /**
+     * Reads the notes written by {@link #encode(PacketBuffer)}.
+     *
+     * @param  buffer The buffer to read from
+     * @return        The decoded store
+     */
+    public static NoteStore decode(final PacketBuffer buffer) {
+        final NoteStore store = new NoteStore();
+        final int present = buffer.readUnsignedShort();
+        for (int section = 0; section < NoteStore.SECTIONS; section++) {
+            if ((present & 1 << section) == 0)
+                continue;
+            for (int i = buffer.readVarInt(); i > 0; i--)
+                store.set(section, buffer.readUnsignedShort() & NoteStore.SECTION_VOLUME - 1,
+                        Math.min(buffer.readUnsignedByte(), RotatedInstrumentBlock.MAX_NOTE));
+        }
+        return store;
+    }
+}
@@ -24,6 +24,26 @@
 
 package io.github.forgecommunitywiki.examplemod.client;
 
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import io.github.forgecommunitywiki.examplemod.block.RotatedInstrumentBlock;
+import io.github.forgecommunitywiki.examplemod.capability.NoteStore;
+import io.github.forgecommunitywiki.examplemod.sound.NoteEvent;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.eventbus.api.IEventBus;
 
 /**
@@ -37,9 +57,135 @@ public final class ClientHandler {
      */
     private static ClientHandler instance;
 
+    /**
+     * Manages the sounds played by instruments.
+     */
+    private final VoiceManager voices = new VoiceManager();
+
+    /**
+     * Notes received for chunks the client has not loaded yet. The server sends
+     * the notes on watch, which happens before the chunk itself is sent.
+     */
+    private final Long2ObjectOpenHashMap<NoteStore> pendingNotes = new Long2ObjectOpenHashMap<>();
+
     public ClientHandler(final IEventBus mod, final IEventBus forge) {
         ClientHandler.instance = this;
+
+        // Attach game events
+        forge.addListener(this.voices::onClientTick);
+        forge.addListener(this.voices::onDebugText);
+        forge.addListener(this.voices::onLoggedOut);
+        forge.addListener(this::onChunkLoad);
+        forge.addListener(this::onWorldUnload);
     }
 
     public static ClientHandler getInstance() { return ClientHandler.instance; }
+
+    /**
+     * Replays the notes played near the player in the order they were played.
+     *
+     * @param events The notes played
+     */
+    public void playNoteEvents(final List<NoteEvent> events) {
+        final ClientWorld world = Minecraft.getInstance().world;
+        if (world == null)
+            return;
+        for (final NoteEvent event : events) {
+            this.voices.play(event);
+            event.addParticle(world);
+        }
+    }
+
+    /**
+     * Plays a note played by a player on this client without waiting for the
+     * server. Only the sound of the local player is played as the server sends
+     * the note to every other player.
+     *
+     * @param world  The world the instrument is in
+     * @param player The player playing the note, or null if none
+     * @param event  The note played
+     */
+    public void playLocalNoteEvent(final World world, @Nullable final PlayerEntity player, final NoteEvent event) {
+        if (player != null && player == Minecraft.getInstance().player)
+            this.voices.play(event);
+        event.addParticle(world);
+    }
+
+    /**
+     * Replaces the notes of a chunk with those sent by the server.
+     *
+     * @param pos   The position of the chunk
+     * @param notes The notes of the chunk
+     */
+    public void readChunkNotes(final ChunkPos pos, final NoteStore notes) {
+        final ClientWorld world = Minecraft.getInstance().world;
+        if (world == null)
+            return;
+        final Chunk chunk = world.getChunkProvider().getChunk(pos.x, pos.z, false);
+        if (chunk != null)
+            NoteStore.get(chunk).ifPresent(store -> store.copy(notes));
+        else
+            this.pendingNotes.put(pos.asLong(), notes);
+    }
+
+    /**
+     * Applies the notes received before the chunk was loaded.
+     *
+     * @param event The chunk load event
+     */
+    private void onChunkLoad(final ChunkEvent.Load event) {
+        if (!event.getWorld().isRemote() || this.pendingNotes.isEmpty() || !(event.getChunk() instanceof Chunk))
+            return;
+        final Chunk chunk = (Chunk) event.getChunk();
+        final NoteStore notes = this.pendingNotes.remove(chunk.getPos().asLong());
+        if (notes != null)
+            NoteStore.get(chunk).ifPresent(store -> store.copy(notes));
+    }
+
+    /**
+     * Drops the pending notes of the world left, whether by changing dimensions
+     * or logging out.
+     *
+     * @param event The world unload event
+     */
+    private void onWorldUnload(final WorldEvent.Unload event) {
+        if (event.getWorld().isRemote())
+            this.pendingNotes.clear();
+    }
+
+    /**
+     * Sets the note of an instrument to that sent by the server.
+     *
+     * @param pos  The position of the instrument
+     * @param note The note between 0 and 24
+     */
+    public void setNote(final BlockPos pos, final int note) {
+        final ClientWorld world = Minecraft.getInstance().world;
+        if (world != null && world.isBlockLoaded(pos))
+            NoteStore.setNote(world, pos, note);
+    }
+
+    /**
+     * Tunes an instrument to the note sent by the server, playing the tuned note
+     * if a sound is present.
+     *
+     * @param pos   The position of the instrument
+     * @param note  The note between 0 and 24
+     * @param sound The sound to play, or null to only set the note
+     */
+    public void tuneNote(final BlockPos pos, final int note, @Nullable final SoundEvent sound) {
+        final ClientWorld world = Minecraft.getInstance().world;
+        if (world == null || !world.isBlockLoaded(pos))
+            return;
+        final BlockState state = world.getBlockState(pos);
+        if (!(state.getBlock() instanceof RotatedInstrumentBlock))
+            return;
+        final RotatedInstrumentBlock block = (RotatedInstrumentBlock) state.getBlock();
+        block.setNote(state, world, pos, note);
+        if (sound != null) {
+            final NoteEvent event = new NoteEvent(pos, sound, SoundCategory.BLOCKS, 1.0f, block.getPitch(note), note);
+            this.voices.play(event);
+            event.addParticle(world);
+        }
+    }
 }
@@ -0,0 +1,90 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.client;
+
+import net.minecraft.client.audio.LocatableSound;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
+
+/**
+ * A sound played by an instrument on the client. Instances are reused by the
+ * {@link VoiceManager} once they have finished playing, so the position,
+ * volume, and pitch can be changed before each play.
+ */
+public final class NoteSound extends LocatableSound {
+
+    /**
+     * Represents a sound not played by a single instrument.
+     */
+    public static final long NO_INSTRUMENT = Long.MIN_VALUE;
+
+    private final SoundEvent event;
+    /**
+     * The packed position of the instrument playing the sound, or
+     * {@link #NO_INSTRUMENT} if the sound was merged from multiple instruments.
+     */
+    private long instrument;
+    /**
+     * Whether the sound was stopped early to make room for another.
+     */
+    private boolean stopping;
+
+    public NoteSound(final SoundEvent event, final SoundCategory category) {
+        super(event.getName(), category);
+        this.event = event;
+    }
+
+    /**
+     * Prepares the sound to be played.
+     *
+     * @param  instrument The packed position of the instrument, or
+     *                    {@link #NO_INSTRUMENT}
+     * @param  x          The x position of the sound
+     * @param  y          The y position of the sound
+     * @param  z          The z position of the sound
+     * @param  volume     The volume of the sound
+     * @param  pitch      The pitch of the sound
+     * @return            The sound
+     */
+    public NoteSound reset(final long instrument, final double x, final double y, final double z, final float volume,
+            final float pitch) {
+        this.instrument = instrument;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.volume = volume;
+        this.pitch = pitch;
+        this.stopping = false;
+        return this;
+    }
+
+    public SoundEvent getEvent() { return this.event; }
+
+    public long getInstrument() { return this.instrument; }
+
+    public boolean isStopping() { return this.stopping; }
+
+    void setStopping() { this.stopping = true; }
+}
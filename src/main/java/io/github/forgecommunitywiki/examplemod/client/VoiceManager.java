@@ -0,0 +1,239 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.client;
+
+import java.util.*;
+
+import io.github.forgecommunitywiki.examplemod.config.ClientConfig;
+import io.github.forgecommunitywiki.examplemod.sound.NoteEvent;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.audio.SoundHandler;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.vector.Vector3d;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.client.event.RenderGameOverlayEvent;
+import net.minecraftforge.event.TickEvent;
+
+/**
+ * Manages the sounds played by instruments on the client. Each instrument and
+ * each sound can only play a limited number of voices at once, with the oldest
+ * voice stopped to make room for a new one. Finished sounds are pooled and
+ * reused. Hits too far away to be heard are dropped, while distant hits of the
+ * same sound, category, and pitch within a tick are merged into a single louder
+ * voice.
+ */
+public final class VoiceManager {
+
+    /**
+     * The sounds currently playing, oldest first.
+     */
+    private final List<NoteSound> active = new ArrayList<>();
+    /**
+     * The finished sounds available for reuse.
+     */
+    private final Map<SoundEvent, Deque<NoteSound>> pool = new IdentityHashMap<>();
+    /**
+     * The distant hits waiting to be merged at the end of the tick, grouped by
+     * sound and then by category and pitch.
+     */
+    private final Map<SoundEvent, List<MergedHits>> merging = new IdentityHashMap<>();
+
+    // Debug counters
+    private long played;
+    private long reused;
+    private long stolen;
+    private long merged;
+    private long dropped;
+
+    /**
+     * Plays the note event, applying the voice limits.
+     *
+     * @param event The note event
+     */
+    public void play(final NoteEvent event) {
+        final BlockPos pos = event.getPos();
+        final double x = pos.getX() + 0.5d, y = pos.getY() + 0.5d, z = pos.getZ() + 0.5d;
+        final double distanceSq = Minecraft.getInstance().gameRenderer.getActiveRenderInfo().getProjectedView()
+                .squareDistanceTo(x, y, z);
+        final double range = event.getRange(), mergeDistance = ClientConfig.INSTANCE.mergeDistance.get();
+
+        if (distanceSq > range * range)
+            this.dropped++;
+        else if (distanceSq > mergeDistance * mergeDistance) {
+            this.merged++;
+            this.getMergedHits(event).add(event, x, y, z);
+        } else
+            this.start(event.getSound(), event.getCategory(), pos.toLong(), x, y, z, event.getVolume(),
+                    event.getPitch());
+    }
+
+    /**
+     * Gets the distant hits the event is merged with, which share its sound,
+     * category, and pitch.
+     *
+     * @param  event The note event
+     * @return       The merged hits
+     */
+    private MergedHits getMergedHits(final NoteEvent event) {
+        final List<MergedHits> merged = this.merging.computeIfAbsent(event.getSound(), e -> new ArrayList<>(2));
+        for (int i = 0; i < merged.size(); i++) {
+            final MergedHits hits = merged.get(i);
+            if (hits.category == event.getCategory() && hits.pitch == event.getPitch())
+                return hits;
+        }
+        final MergedHits hits = new MergedHits(event.getSound(), event.getCategory(), event.getPitch());
+        merged.add(hits);
+        return hits;
+    }
+
+    /**
+     * Starts a voice, stopping the oldest voices of the instrument or sound if
+     * their limits were reached.
+     */
+    private void start(final SoundEvent event, final SoundCategory category, final long instrument, final double x,
+            final double y, final double z, final float volume, final float pitch) {
+        final SoundHandler handler = Minecraft.getInstance().getSoundHandler();
+        final int maxPerInstrument = ClientConfig.INSTANCE.maxVoicesPerInstrument.get(),
+                maxPerSound = ClientConfig.INSTANCE.maxVoicesPerSound.get();
+        int instrumentVoices = 0, soundVoices = 0;
+        for (final NoteSound sound : this.active)
+            if (!sound.isStopping()) {
+                if (instrument != NoteSound.NO_INSTRUMENT && sound.getInstrument() == instrument)
+                    instrumentVoices++;
+                if (sound.getEvent() == event)
+                    soundVoices++;
+            }
+
+        // Steal the oldest voices over the limit
+        for (int i = 0; i < this.active.size()
+                && (instrumentVoices >= maxPerInstrument || soundVoices >= maxPerSound); i++) {
+            final NoteSound sound = this.active.get(i);
+            if (sound.isStopping())
+                continue;
+            final boolean sameInstrument = instrument != NoteSound.NO_INSTRUMENT
+                    && sound.getInstrument() == instrument, sameSound = sound.getEvent() == event;
+            if (sameInstrument && instrumentVoices >= maxPerInstrument || sameSound && soundVoices >= maxPerSound) {
+                handler.stop(sound);
+                sound.setStopping();
+                this.stolen++;
+                if (sameInstrument)
+                    instrumentVoices--;
+                if (sameSound)
+                    soundVoices--;
+            }
+        }
+
+        final Deque<NoteSound> pooled = this.pool.get(event);
+        NoteSound sound = pooled != null ? pooled.poll() : null;
+        if (sound == null || sound.getCategory() != category)
+            sound = new NoteSound(event, category);
+        else
+            this.reused++;
+        handler.play(sound.reset(instrument, x, y, z, volume, pitch));
+        this.active.add(sound);
+        this.played++;
+    }
+
+    /**
+     * Plays the merged distant hits and returns finished sounds to the pool.
+     *
+     * @param event The client tick event
+     */
+    public void onClientTick(final TickEvent.ClientTickEvent event) {
+        if (event.phase != TickEvent.Phase.END)
+            return;
+        if (!this.merging.isEmpty()) {
+            for (final List<MergedHits> merged : this.merging.values())
+                for (final MergedHits hits : merged)
+                    if (hits.totalVolume > 0f)
+                        this.start(hits.event, hits.category, NoteSound.NO_INSTRUMENT, hits.x / hits.totalVolume,
+                                hits.y / hits.totalVolume, hits.z / hits.totalVolume,
+                                Math.min(hits.totalVolume, Math.max(hits.maxVolume, 1.0f)), hits.pitch);
+            this.merging.clear();
+        }
+
+        final SoundHandler handler = Minecraft.getInstance().getSoundHandler();
+        for (int i = this.active.size() - 1; i >= 0; i--) {
+            final NoteSound sound = this.active.get(i);
+            if (!handler.isPlaying(sound)) {
+                this.active.remove(i);
+                this.pool.computeIfAbsent(sound.getEvent(), e -> new ArrayDeque<>()).add(sound);
+            }
+        }
+    }
+
+    /**
+     * Adds the voice counters to the debug overlay.
+     *
+     * @param event The debug text event
+     */
+    public void onDebugText(final RenderGameOverlayEvent.Text event) {
+        if (Minecraft.getInstance().gameSettings.showDebugInfo)
+            event.getLeft()
+                    .add(String.format("Instrument Voices: %d active, %d pooled | P: %d R: %d S: %d M: %d D: %d",
+                            this.active.size(), this.pool.values().stream().mapToInt(Deque::size).sum(),
+                            this.played, this.reused, this.stolen, this.merged, this.dropped));
+    }
+
+    /**
+     * Clears all voices when leaving the world as the sound engine stops them.
+     *
+     * @param event The logged out event
+     */
+    public void onLoggedOut(final ClientPlayerNetworkEvent.LoggedOutEvent event) {
+        this.active.clear();
+        this.pool.clear();
+        this.merging.clear();
+    }
+
+    /**
+     * Distant hits of the same sound, category, and pitch within a tick. The
+     * merged voice is played at the volume weighted center of the hits.
+     */
+    private static final class MergedHits {
+
+        private final SoundEvent event;
+        private final SoundCategory category;
+        private final float pitch;
+        private double x, y, z;
+        private float totalVolume, maxVolume;
+
+        private MergedHits(final SoundEvent event, final SoundCategory category, final float pitch) {
+            this.event = event;
+            this.category = category;
+            this.pitch = pitch;
+        }
+
+        private void add(final NoteEvent hit, final double x, final double y, final double z) {
+            this.x += x * hit.getVolume();
+            this.y += y * hit.getVolume();
+            this.z += z * hit.getVolume();
+            this.totalVolume += hit.getVolume();
+            this.maxVolume = Math.max(this.maxVolume, hit.getVolume());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.command;
+
+import com.mojang.brigadier.context.CommandContext;
+
+import io.github.forgecommunitywiki.examplemod.ExampleMod;
+import io.github.forgecommunitywiki.examplemod.sound.InstrumentRateLimiter;
+import io.github.forgecommunitywiki.examplemod.util.Metrics;
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.Commands;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.util.text.TranslationTextComponent;
+import net.minecraftforge.event.RegisterCommandsEvent;
+
+/**
+ * Registers the commands of the mod under {@code /examplemod}. Every command
+ * requires operator permissions.
+ */
+public final class ExampleCommands {
+
+    /**
+     * The prefix of the translation keys of every command.
+     */
+    public static final String TRANSLATION_PREFIX = "commands." + ExampleMod.ID + ".";
+
+    /**
+     * Registers the commands to the dispatcher.
+     *
+     * @param event The register commands event
+     */
+    public static void register(final RegisterCommandsEvent event) {
+        event.getDispatcher()
+                .register(Commands.literal(ExampleMod.ID).requires(source -> source.hasPermissionLevel(2))
+                        .then(Commands.literal("ratelimit").executes(ExampleCommands::rateLimit))
+                        .then(Commands.literal("stats").executes(ExampleCommands::stats)
+                                .then(Commands.literal("reset").executes(ExampleCommands::resetStats))));
+    }
+
+    /**
+     * Reports the number of instrument hits dropped by the
+     * {@link InstrumentRateLimiter}, in total and for each online player with
+     * dropped hits.
+     *
+     * @param  ctx The command context
+     * @return     The total number of dropped hits
+     */
+    private static int rateLimit(final CommandContext<CommandSource> ctx) {
+        final CommandSource source = ctx.getSource();
+        final long total = InstrumentRateLimiter.getTotalDrops();
+        source.sendFeedback(new TranslationTextComponent(ExampleCommands.TRANSLATION_PREFIX + "ratelimit.total",
+                total), false);
+        for (final ServerPlayerEntity player : source.getServer().getPlayerList().getPlayers()) {
+            final int drops = InstrumentRateLimiter.getDrops(player);
+            if (drops > 0)
+                source.sendFeedback(new TranslationTextComponent(
+                        ExampleCommands.TRANSLATION_PREFIX + "ratelimit.player", player.getDisplayName(), drops),
+                        false);
+        }
+        return (int) Math.min(total, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Reports every {@link Metrics metric} since they were last reset, along with
+     * their rates per second. Timers also report their latency and how many
+     * milliseconds they take each second.
+     *
+     * @param  ctx The command context
+     * @return     The number of metrics reported
+     */
+    private static int stats(final CommandContext<CommandSource> ctx) {
+        final CommandSource source = ctx.getSource();
+        if (!Metrics.isEnabled()) {
+            source.sendErrorMessage(
+                    new TranslationTextComponent(ExampleCommands.TRANSLATION_PREFIX + "stats.disabled"));
+            return 0;
+        }
+
+        final double seconds = Math.max(Metrics.getElapsedSeconds(), 1.0E-3d);
+        source.sendFeedback(new TranslationTextComponent(ExampleCommands.TRANSLATION_PREFIX + "stats.header",
+                String.format("%.1f", seconds)), false);
+        for (final Metrics.Metric metric : Metrics.getMetrics())
+            if (metric instanceof Metrics.Timer) {
+                final Metrics.Timer timer = (Metrics.Timer) metric;
+                final long count = timer.getCount();
+                final long total = timer.getTotalNanos();
+                source.sendFeedback(new TranslationTextComponent(ExampleCommands.TRANSLATION_PREFIX + "stats.timer",
+                        timer.getName(), count, String.format("%.1f", count / seconds),
+                        String.format("%.1f", count == 0L ? 0d : total / 1.0E3d / count),
+                        String.format("%.1f", timer.getPercentile(0.5d) / 1.0E3d),
+                        String.format("%.1f", timer.getPercentile(0.99d) / 1.0E3d),
+                        String.format("%.3f", total / 1.0E6d / seconds)), false);
+            } else {
+                final long count = ((Metrics.Counter) metric).getCount();
+                source.sendFeedback(new TranslationTextComponent(ExampleCommands.TRANSLATION_PREFIX + "stats.counter",
+                        metric.getName(), count, String.format("%.1f", count / seconds)), false);
+            }
+        return Metrics.getMetrics().size();
+    }
+
+    /**
+     * Resets every {@link Metrics metric}.
+     *
+     * @param  ctx The command context
+     * @return     Always one
+     */
+    private static int resetStats(final CommandContext<CommandSource> ctx) {
+        Metrics.reset();
+        ctx.getSource().sendFeedback(new TranslationTextComponent(ExampleCommands.TRANSLATION_PREFIX + "stats.reset"),
+                true);
+        return 1;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.config;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import net.minecraftforge.common.ForgeConfigSpec;
+
+/**
+ * The configuration of a physical client. This is stored once per client and
+ * is never synced.
+ */
+public final class ClientConfig {
+
+    /**
+     * The specification of the configuration.
+     */
+    public static final ForgeConfigSpec SPEC;
+    /**
+     * The values of the configuration.
+     */
+    public static final ClientConfig INSTANCE;
+
+    static {
+        final Pair<ClientConfig, ForgeConfigSpec> pair = new ForgeConfigSpec.Builder().configure(ClientConfig::new);
+        SPEC = pair.getRight();
+        INSTANCE = pair.getLeft();
+    }
+
+    // Voices
+    public final ForgeConfigSpec.IntValue maxVoicesPerInstrument;
+    public final ForgeConfigSpec.IntValue maxVoicesPerSound;
+    public final ForgeConfigSpec.DoubleValue mergeDistance;
+
+    private ClientConfig(final ForgeConfigSpec.Builder builder) {
+        builder.comment("Settings for how instrument sounds are played on the client").push("voices");
+        this.maxVoicesPerInstrument = builder
+                .comment("The maximum number of sounds a single instrument can play at once.",
+                        "The oldest sound is stopped when the instrument is hit again.")
+                .defineInRange("maxVoicesPerInstrument", 2, 1, 64);
+        this.maxVoicesPerSound = builder
+                .comment("The maximum number of instances of the same sound that can play at once.",
+                        "The oldest instance is stopped when the sound is played again.")
+                .defineInRange("maxVoicesPerSound", 8, 1, 247);
+        this.mergeDistance = builder
+                .comment("The distance in blocks after which hits of the same sound within a tick are merged",
+                        "into a single louder sound. Hits too far away to be heard are always dropped.")
+                .defineInRange("mergeDistance", 12d, 0d, 256d);
+        builder.pop();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.config;
+
+import java.util.List;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import io.github.forgecommunitywiki.examplemod.sound.PitchTables;
+import io.github.forgecommunitywiki.examplemod.sound.TuningSystem;
+import net.minecraftforge.common.ForgeConfigSpec;
+
+/**
+ * The configuration of a server. This is stored per world and synced to the
+ * client on login.
+ */
+public final class ServerConfig {
+
+    /**
+     * The specification of the configuration.
+     */
+    public static final ForgeConfigSpec SPEC;
+    /**
+     * The values of the configuration.
+     */
+    public static final ServerConfig INSTANCE;
+
+    static {
+        final Pair<ServerConfig, ForgeConfigSpec> pair = new ForgeConfigSpec.Builder().configure(ServerConfig::new);
+        SPEC = pair.getRight();
+        INSTANCE = pair.getLeft();
+    }
+
+    // Instruments
+    public final ForgeConfigSpec.EnumValue<TuningSystem> tuningSystem;
+    public final ForgeConfigSpec.ConfigValue<List<? extends Number>> customScale;
+    public final ForgeConfigSpec.IntValue instrumentTriggerBudget;
+    public final ForgeConfigSpec.IntValue instrumentHitBurst;
+    public final ForgeConfigSpec.DoubleValue instrumentHitRate;
+
+    // Effects
+    public final ForgeConfigSpec.IntValue damageOverTimeGranularity;
+
+    // Debug
+    public final ForgeConfigSpec.BooleanValue collectMetrics;
+
+    private ServerConfig(final ForgeConfigSpec.Builder builder) {
+        builder.comment("Settings for how instruments are played").push("instruments");
+        this.tuningSystem = builder
+                .comment("The tuning system used by instruments that do not specify their own.",
+                        "One of EQUAL_TEMPERAMENT, JUST_INTONATION, PENTATONIC, or CUSTOM.")
+                .defineEnum("tuningSystem", TuningSystem.EQUAL_TEMPERAMENT);
+        this.customScale = builder
+                .comment("The scale of the CUSTOM tuning system as the semitones of each degree within an octave.",
+                        "Fractional semitones are allowed and the root is always part of the scale.",
+                        "Notes not within the scale snap down to the closest degree.")
+                .<Number>defineList("customScale", PitchTables.DEFAULT_CUSTOM_SCALE,
+                        o -> o instanceof Number && ((Number) o).doubleValue() >= 0d
+                                && ((Number) o).doubleValue() < 12d);
+        this.instrumentTriggerBudget = builder
+                .comment("The maximum number of instruments triggered by redstone that are played each tick.",
+                        "Any remaining instruments are played on the following ticks.")
+                .defineInRange("instrumentTriggerBudget", 256, 1, 65536);
+        this.instrumentHitBurst = builder
+                .comment("The maximum number of times a player can hit instruments in quick succession.",
+                        "Hits beyond this are dropped until the player has waited for more hits to refill.")
+                .defineInRange("instrumentHitBurst", 10, 1, 1000);
+        this.instrumentHitRate = builder
+                .comment("The number of hits per second refilled for each player after a burst.")
+                .defineInRange("instrumentHitRate", 8d, 0.1d, 1000d);
+        builder.pop();
+
+        builder.comment("Settings for how effects are applied").push("effects");
+        this.damageOverTimeGranularity = builder
+                .comment("The number of ticks damage over time effects accumulate their damage before applying it.",
+                        "The accumulated damage is applied in a single hit. Effects that trigger less often still hit",
+                        "once on each of their triggers. Set to 0 to hit on every trigger of the effect instead.")
+                .defineInRange("damageOverTimeGranularity", 20, 0, 1200);
+        builder.pop();
+
+        builder.comment("Settings for diagnosing the mod").push("debug");
+        this.collectMetrics = builder
+                .comment("Whether to collect metrics of how often and how long the mod runs.",
+                        "Metrics are reported through /examplemod stats and reset when enabled.")
+                .define("collectMetrics", false);
+        builder.pop();
+    }
+}
@@ -0,0 +1,426 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+import com.google.common.hash.Hasher;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import io.github.forgecommunitywiki.examplemod.ExampleMod;
+import io.github.forgecommunitywiki.examplemod.util.GeneralHelper;
+import net.minecraft.data.DataGenerator;
+import net.minecraft.data.DirectoryCache;
+import net.minecraft.data.IDataProvider;
+import net.minecraft.util.JSONUtils;
+import net.minecraftforge.versions.forge.ForgeVersion;
+
+/**
+ * A provider which runs other providers concurrently on a bounded executor and
+ * skips those whose inputs have not changed since the last run.
+ *
+ * <p>
+ * Providers are added in lanes. Providers within a lane run one after another
+ * on the same thread, while separate lanes run concurrently. Providers which
+ * share state, such as model providers sharing an
+ * {@link net.minecraftforge.common.data.ExistingFileHelper}, must be added to
+ * the same lane.
+ *
+ * <p>
+ * The inputs of a provider are the code of the mod and any paths of its lane.
+ * Their content hash, along with the hashes of every file the provider wrote,
+ * is stored in {@code .cache/examplemod_inputs.json} within the output folder.
+ * A provider is skipped if its inputs hash the same as the last run and its
+ * outputs are unchanged, in which case its outputs are recorded to the cache
+ * again so they are not removed as stale. A skipped provider does not track
+ * its generated files within an existing file helper, so a provider should not
+ * depend on the generated files of another.
+ *
+ * <p>
+ * The time taken by each provider is logged and written to
+ * {@code data_timings.txt} within the working directory.
+ */
+public final class ParallelDataProvider implements IDataProvider {
+
+    private static final String MANIFEST = "examplemod_inputs.json";
+    private static final String THREADS = "examplemod.data.threads";
+
+    private final DataGenerator gen;
+    private final List<Path> code;
+    private final List<Lane> lanes = new ArrayList<>();
+    /**
+     * The hashes of each input path, shared between providers.
+     */
+    private final Map<Path, String> pathHashes = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a parallel provider.
+     *
+     * @param gen  The data generator
+     * @param code The paths holding the code of the mod. If empty, the inputs
+     *             of the providers are unknown and they are never skipped.
+     */
+    public ParallelDataProvider(final DataGenerator gen, final Collection<Path> code) {
+        this.gen = gen;
+        this.code = new ArrayList<>(code);
+    }
+
+    /**
+     * Gets the paths within the system property, separated by the path
+     * separator of the platform.
+     *
+     * @param  property The name of the property
+     * @return          The paths, or an empty list if the property is not set
+     */
+    public static List<Path> getInputs(final String property) {
+        final String value = System.getProperty(property, "");
+        return value.isEmpty() ? Collections.emptyList()
+                : Stream.of(value.split(File.pathSeparator)).map(Paths::get).collect(Collectors.toList());
+    }
+
+    /**
+     * Adds a provider to run within its own lane.
+     *
+     * @param  provider The provider
+     * @return          This provider for chaining
+     */
+    public ParallelDataProvider add(final IDataProvider provider) {
+        return this.add(Collections.emptyList(), provider);
+    }
+
+    /**
+     * Adds a lane of providers which run one after another.
+     *
+     * @param  inputs    The paths read by the providers besides the code of the
+     *                   mod
+     * @param  providers The providers
+     * @return           This provider for chaining
+     */
+    public ParallelDataProvider add(final Collection<Path> inputs, final IDataProvider... providers) {
+        this.lanes.add(new Lane(new ArrayList<>(inputs), Arrays.asList(providers)));
+        return this;
+    }
+
+    @Override
+    public void act(final DirectoryCache cache) throws IOException {
+        final Path output = this.gen.getOutputFolder();
+        final Path manifest = output.resolve(".cache").resolve(ParallelDataProvider.MANIFEST);
+        final JsonObject previous = ParallelDataProvider.readManifest(manifest);
+        final Path scratch = Files.createTempDirectory("examplemod_data");
+        final int threads = Math.max(1, Math.min(this.lanes.size(),
+                Integer.getInteger(ParallelDataProvider.THREADS, Runtime.getRuntime().availableProcessors())));
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        final long start = System.nanoTime();
+        final List<Result> results = new ArrayList<>();
+        try {
+            final List<Future<List<Result>>> futures = new ArrayList<>();
+            for (final Lane lane : this.lanes)
+                futures.add(executor.submit(() -> this.runLane(lane, cache, output, previous, scratch)));
+            for (final Future<List<Result>> future : futures)
+                results.addAll(ParallelDataProvider.join(future));
+        } finally {
+            executor.shutdownNow();
+            try (Stream<Path> paths = Files.walk(scratch)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+        final long elapsed = System.nanoTime() - start;
+
+        // Sorted so the manifest is only rewritten when a provider changes
+        results.sort(Comparator.comparing(result -> result.name));
+        final JsonObject current = new JsonObject();
+        for (final Result result : results)
+            if (result.inputs != null) {
+                final JsonObject entry = new JsonObject();
+                entry.addProperty("inputs", result.inputs);
+                final JsonObject outputs = new JsonObject();
+                result.outputs.forEach((path, hash) -> outputs.addProperty(
+                        output.relativize(path).toString().replace('\\', '/'), hash));
+                entry.add("outputs", outputs);
+                current.add(result.name, entry);
+            }
+        IDataProvider.save(GeneralHelper.GSON, cache, current, manifest);
+
+        this.report(results, threads, elapsed);
+    }
+
+    /**
+     * Runs the providers of a lane, skipping those whose inputs are unchanged.
+     *
+     * @param  lane        The lane
+     * @param  cache       The cache of the data generator
+     * @param  output      The output folder
+     * @param  previous    The manifest of the last run
+     * @param  scratch     An empty folder to back the recording caches
+     * @return             The results of each provider
+     * @throws IOException If a provider could not be run
+     */
+    private List<Result> runLane(final Lane lane, final DirectoryCache cache, final Path output,
+            final JsonObject previous, final Path scratch) throws IOException {
+        final List<Result> results = new ArrayList<>();
+        for (final IDataProvider provider : lane.providers) {
+            final long start = System.nanoTime();
+            final String inputs = this.hashInputs(provider, lane.inputs);
+            final Map<Path, String> outputs = new TreeMap<>();
+            final boolean skipped = inputs != null && previous.has(provider.getName())
+                    && ParallelDataProvider.reuseOutputs(cache, output,
+                            previous.getAsJsonObject(provider.getName()), inputs, outputs);
+            if (!skipped) {
+                outputs.clear();
+                provider.act(new RecordingCache(scratch, cache, outputs));
+            }
+            results.add(new Result(provider.getName(), inputs, outputs, skipped, System.nanoTime() - start));
+        }
+        return results;
+    }
+
+    /**
+     * Records the outputs of the last run to the cache if the inputs are
+     * unchanged and every output still has the hash it was written with.
+     *
+     * @param  cache   The cache of the data generator
+     * @param  output  The output folder
+     * @param  entry   The manifest entry of the provider from the last run
+     * @param  inputs  The hash of the current inputs
+     * @param  outputs The map to add the reused outputs to
+     * @return         True if the outputs were reused, false otherwise
+     */
+    private static boolean reuseOutputs(final DirectoryCache cache, final Path output, final JsonObject entry,
+            final String inputs, final Map<Path, String> outputs) {
+        if (!inputs.equals(JSONUtils.getString(entry, "inputs", "")))
+            return false;
+        for (final Map.Entry<String, JsonElement> file : JSONUtils.getJsonObject(entry, "outputs").entrySet())
+            outputs.put(output.resolve(file.getKey()), file.getValue().getAsString());
+
+        synchronized (cache) {
+            for (final Map.Entry<Path, String> file : outputs.entrySet())
+                if (!Files.isRegularFile(file.getKey())
+                        || !file.getValue().equals(cache.getPreviousHash(file.getKey())))
+                    return false;
+            outputs.forEach(cache::recordHash);
+        }
+        return true;
+    }
+
+    /**
+     * Hashes the inputs of the provider.
+     *
+     * @param  provider The provider
+     * @param  inputs   The paths read by the provider besides the code of the mod
+     * @return          The hash of the inputs, or {@code null} if the inputs are
+     *                  unknown
+     */
+    @Nullable
+    private String hashInputs(final IDataProvider provider, final List<Path> inputs) {
+        if (this.code.isEmpty())
+            return null;
+        final Hasher hasher = IDataProvider.HASH_FUNCTION.newHasher()
+                .putString(provider.getName(), StandardCharsets.UTF_8)
+                .putString(ForgeVersion.getVersion(), StandardCharsets.UTF_8);
+        for (final Path path : this.code)
+            hasher.putString(this.pathHashes.computeIfAbsent(path, ParallelDataProvider::hashPath),
+                    StandardCharsets.UTF_8);
+        for (final Path path : inputs)
+            hasher.putString(this.pathHashes.computeIfAbsent(path, ParallelDataProvider::hashPath),
+                    StandardCharsets.UTF_8);
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Hashes the relative names and contents of every file within the path.
+     *
+     * @param  path                 The file or folder to hash
+     * @return                      The hash of the path
+     * @throws UncheckedIOException If a file could not be read
+     */
+    private static String hashPath(final Path path) {
+        final Hasher hasher = IDataProvider.HASH_FUNCTION.newHasher();
+        if (Files.exists(path))
+            try (Stream<Path> files = Files.walk(path)) {
+                for (final Path file : files.filter(Files::isRegularFile).sorted().collect(Collectors.toList()))
+                    hasher.putString(path.relativize(file).toString().replace('\\', '/'), StandardCharsets.UTF_8)
+                            .putBytes(Files.readAllBytes(file));
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Reads the manifest of the last run.
+     *
+     * @param  manifest The path of the manifest
+     * @return          The manifest, or an empty object if there is none
+     */
+    private static JsonObject readManifest(final Path manifest) {
+        if (Files.isRegularFile(manifest))
+            try (Reader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8)) {
+                final JsonObject json = JSONUtils.fromJson(GeneralHelper.GSON, reader, JsonObject.class);
+                if (json != null)
+                    return json;
+            } catch (final IOException | RuntimeException e) {
+                GeneralHelper.LOGGER.warn("Could not read {}, running every provider.", manifest, e);
+            }
+        return new JsonObject();
+    }
+
+    /**
+     * Waits for the results of a lane, rethrowing any exception of its
+     * providers.
+     */
+    private static List<Result> join(final Future<List<Result>> future) throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running the data providers", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            if (e.getCause() instanceof UncheckedIOException)
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IOException("A data provider has failed", e.getCause());
+        }
+    }
+
+    /**
+     * Logs and writes the time taken by each provider.
+     */
+    private void report(final List<Result> results, final int threads, final long elapsed) {
+        final StringBuilder report = new StringBuilder(String.format("Data providers: %,.1f ms on %d threads%n",
+                elapsed / 1e6, threads));
+        for (final Result result : results)
+            report.append(String.format("  %-60s %10.1f ms %9s %6d files%n", result.name, result.elapsed / 1e6,
+                    result.skipped ? "skipped" : "generated", result.outputs.size()));
+        GeneralHelper.LOGGER.info("{}", report);
+
+        final Path path = Paths.get("data_timings.txt");
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write(report.toString());
+        } catch (final IOException e) {
+            GeneralHelper.LOGGER.error("Could not write the data provider timings to {}.", path.toAbsolutePath(), e);
+        }
+    }
+
+    @Override
+    public String getName() { return "Parallel Providers: " + ExampleMod.ID; }
+
+    /**
+     * Providers which run one after another, along with the paths they read.
+     */
+    private static final class Lane {
+
+        private final List<Path> inputs;
+        private final List<IDataProvider> providers;
+
+        private Lane(final List<Path> inputs, final List<IDataProvider> providers) {
+            this.inputs = inputs;
+            this.providers = providers;
+        }
+    }
+
+    /**
+     * The outcome of running a single provider.
+     */
+    private static final class Result {
+
+        private final String name;
+        @Nullable
+        private final String inputs;
+        private final Map<Path, String> outputs;
+        private final boolean skipped;
+        private final long elapsed;
+
+        private Result(final String name, @Nullable final String inputs, final Map<Path, String> outputs,
+                final boolean skipped, final long elapsed) {
+            this.name = name;
+            this.inputs = inputs;
+            this.outputs = outputs;
+            this.skipped = skipped;
+            this.elapsed = elapsed;
+        }
+    }
+
+    /**
+     * A cache which forwards to the cache of the data generator while recording
+     * the files written by a single provider. The cache of the data generator is
+     * not thread safe, so it is locked on every access.
+     */
+    private static final class RecordingCache extends DirectoryCache {
+
+        private final DirectoryCache cache;
+        private final Map<Path, String> outputs;
+
+        /**
+         * Creates a recording cache.
+         *
+         * @param  scratch     An empty folder, as the constructor of the cache
+         *                     lists every file within it
+         * @param  cache       The cache of the data generator
+         * @param  outputs     The map to record the written files to
+         * @throws IOException If the scratch folder could not be read
+         */
+        private RecordingCache(final Path scratch, final DirectoryCache cache, final Map<Path, String> outputs)
+                throws IOException {
+            super(scratch, "recording");
+            this.cache = cache;
+            this.outputs = outputs;
+        }
+
+        @Override
+        @Nullable
+        public String getPreviousHash(final Path path) {
+            synchronized (this.cache) {
+                return this.cache.getPreviousHash(path);
+            }
+        }
+
+        @Override
+        public void recordHash(final Path path, final String hash) {
+            synchronized (this.cache) {
+                this.cache.recordHash(path, hash);
+            }
+            this.outputs.put(path, hash);
+        }
+    }
+}
@@ -63,6 +63,12 @@ public class BlockStates extends BlockStateProvider {
         this.createDrumBlock(GeneralRegistrar.DARK_OAK_LOG_DRUM, BlockStates.toTexture(Blocks.DARK_OAK_LOG));
         this.createDrumBlock(GeneralRegistrar.CRIMSON_STEM_DRUM, BlockStates.toTexture(Blocks.CRIMSON_STEM));
         this.createDrumBlock(GeneralRegistrar.WARPED_STEM_DRUM, BlockStates.toTexture(Blocks.WARPED_STEM));
+
+        final ResourceLocation noteBlock = BlockStates.toTexture(Blocks.NOTE_BLOCK);
+        final BlockModelBuilder sequencer = this.models().cubeBottomTop(GeneralRegistrar.SEQUENCER.getId().toString(),
+                noteBlock, noteBlock, BlockStates.extend(BlockStates.toTexture(Blocks.JUKEBOX), "_top"));
+        this.simpleBlock(GeneralRegistrar.SEQUENCER.get(), sequencer);
+        this.simpleBlockItem(GeneralRegistrar.SEQUENCER.get(), sequencer);
     }
 
     /**
@@ -28,6 +28,7 @@ import java.util.function.Supplier;
 
 import io.github.forgecommunitywiki.examplemod.ExampleMod;
 import io.github.forgecommunitywiki.examplemod.GeneralRegistrar;
+import io.github.forgecommunitywiki.examplemod.command.ExampleCommands;
 import net.minecraft.data.DataGenerator;
 import net.minecraft.util.DamageSource;
 import net.minecraft.util.SoundEvent;
@@ -61,6 +62,10 @@ public class Localizations extends LanguageProvider {
                 this.addBlock(GeneralRegistrar.DARK_OAK_LOG_DRUM, "Dark Oak Log Drum");
                 this.addBlock(GeneralRegistrar.CRIMSON_STEM_DRUM, "Crimson Stem Drum");
                 this.addBlock(GeneralRegistrar.WARPED_STEM_DRUM, "Warped Stem Drum");
+                this.addBlock(GeneralRegistrar.SEQUENCER, "Sequencer");
+                this.add(GeneralRegistrar.SEQUENCER.get().getTranslationKey() + ".started", "Sequencer started");
+                this.add(GeneralRegistrar.SEQUENCER.get().getTranslationKey() + ".stopped", "Sequencer stopped");
+                this.add(GeneralRegistrar.SEQUENCER.get().getTranslationKey() + ".tempo", "Tempo: %s BPM");
 
                 // Items
                 this.addItem(GeneralRegistrar.DRUMSTICK, "Drumstick");
@@ -90,6 +95,18 @@ public class Localizations extends LanguageProvider {
                 this.addSoundEventSubtitle(GeneralRegistrar.DRUMSTICK_CRIMSON_STEM_HIT, "Drumstick Hits Crimson Stem");
                 this.addSoundEventSubtitle(GeneralRegistrar.DRUMSTICK_WARPED_STEM_HIT, "Drumstick Hits Warped Stem");
                 this.addSoundEventSubtitle(GeneralRegistrar.DRUM_TEST_HIT, "Drum Pitch Shifts");
+
+                // Commands
+                this.add(ExampleCommands.TRANSLATION_PREFIX + "ratelimit.total",
+                        "%s instrument hits dropped since the server started");
+                this.add(ExampleCommands.TRANSLATION_PREFIX + "ratelimit.player", "%s: %s hits dropped");
+                this.add(ExampleCommands.TRANSLATION_PREFIX + "stats.disabled",
+                        "Metrics are not being collected, enable collectMetrics in the server config");
+                this.add(ExampleCommands.TRANSLATION_PREFIX + "stats.header", "Metrics over the last %s seconds:");
+                this.add(ExampleCommands.TRANSLATION_PREFIX + "stats.counter", "%s: %s (%s/s)");
+                this.add(ExampleCommands.TRANSLATION_PREFIX + "stats.timer",
+                        "%s: %s calls (%s/s), mean %s \u00B5s, p50 %s \u00B5s, p99 %s \u00B5s, %s ms/s");
+                this.add(ExampleCommands.TRANSLATION_PREFIX + "stats.reset", "Metrics have been reset");
             default:
                 break;
         }
@@ -24,12 +24,20 @@
 
 package io.github.forgecommunitywiki.examplemod.data.server;
 
+import java.util.Arrays;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
 import io.github.forgecommunitywiki.examplemod.ExampleMod;
 import io.github.forgecommunitywiki.examplemod.GeneralRegistrar;
+import io.github.forgecommunitywiki.examplemod.loot.CompiledReplaceLootModifier;
+import io.github.forgecommunitywiki.examplemod.loot.LootScope;
 import io.github.forgecommunitywiki.examplemod.loot.ReplaceLootModifier;
 import net.minecraft.data.DataGenerator;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
+import net.minecraft.loot.LootParameterSets;
 import net.minecraft.loot.conditions.ILootCondition;
 import net.minecraft.loot.conditions.RandomChance;
 import net.minecraftforge.common.data.GlobalLootModifierProvider;
@@ -46,11 +54,12 @@ public class GlobalLootModifiers extends GlobalLootModifierProvider {
 
     @Override
     protected void start() {
-        this.add("chicken_leg", GeneralRegistrar.REPLACE_LOOT.get(),
-                new ReplaceLootModifier(new ILootCondition[] { RandomChance.builder(0.4f).build() }, Items.CHICKEN,
-                        new ItemStack(GeneralRegistrar.CHICKEN_LEG.get(), 2)));
-        this.add("cooked_chicken_leg", GeneralRegistrar.REPLACE_LOOT.get(),
-                new ReplaceLootModifier(new ILootCondition[] { RandomChance.builder(0.3f).build() },
-                        Items.COOKED_CHICKEN, new ItemStack(GeneralRegistrar.COOKED_CHICKEN_LEG.get(), 2)));
+        this.add("chicken_legs", GeneralRegistrar.COMPILED_REPLACE_LOOT.get(), new CompiledReplaceLootModifier(
+                new ILootCondition[0], new LootScope(ImmutableSet.of(), ImmutableList.of(LootParameterSets.ENTITY)),
+                Arrays.asList(
+                        new ReplaceLootModifier(new ILootCondition[] { RandomChance.builder(0.4f).build() },
+                                Items.CHICKEN, new ItemStack(GeneralRegistrar.CHICKEN_LEG.get(), 2)),
+                        new ReplaceLootModifier(new ILootCondition[] { RandomChance.builder(0.3f).build() },
+                                Items.COOKED_CHICKEN, new ItemStack(GeneralRegistrar.COOKED_CHICKEN_LEG.get(), 2)))));
     }
 }
@@ -0,0 +1,141 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.data.server;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.google.gson.JsonObject;
+
+import io.github.forgecommunitywiki.examplemod.ExampleMod;
+import io.github.forgecommunitywiki.examplemod.GeneralRegistrar;
+import io.github.forgecommunitywiki.examplemod.item.InstrumentItem;
+import io.github.forgecommunitywiki.examplemod.sound.InstrumentSoundManager;
+import io.github.forgecommunitywiki.examplemod.util.GeneralHelper;
+import net.minecraft.block.Block;
+import net.minecraft.data.*;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.tags.ITag;
+import net.minecraft.util.SoundEvent;
+
+/**
+ * A provider used to generate the sounds an instrument makes when hitting a
+ * specific block. These are read by the {@link InstrumentSoundManager}.
+ */
+public class InstrumentSounds implements IDataProvider {
+
+    private final DataGenerator gen;
+    private final Map<String, JsonObject> toSerialize = new LinkedHashMap<>();
+
+    public InstrumentSounds(final DataGenerator gen) {
+        this.gen = gen;
+    }
+
+    /**
+     * Adds all instrument sounds to be generated.
+     */
+    protected void start() {
+        // Any other log, such as a modded one, falls back to the oak log sound
+        this.add("drumstick", GeneralRegistrar.DRUMSTICK.get(),
+                sounds -> sounds.add(BlockTags.LOGS, GeneralRegistrar.DRUMSTICK_OAK_LOG_HIT.get(), -1)
+                        .add(BlockTags.OAK_LOGS, GeneralRegistrar.DRUMSTICK_OAK_LOG_HIT.get(), 0)
+                        .add(BlockTags.BIRCH_LOGS, GeneralRegistrar.DRUMSTICK_BIRCH_LOG_HIT.get(), 0)
+                        .add(BlockTags.SPRUCE_LOGS, GeneralRegistrar.DRUMSTICK_SPRUCE_LOG_HIT.get(), 0)
+                        .add(BlockTags.JUNGLE_LOGS, GeneralRegistrar.DRUMSTICK_JUNGLE_LOG_HIT.get(), 0)
+                        .add(BlockTags.ACACIA_LOGS, GeneralRegistrar.DRUMSTICK_ACACIA_LOG_HIT.get(), 0)
+                        .add(BlockTags.DARK_OAK_LOGS, GeneralRegistrar.DRUMSTICK_DARK_OAK_LOG_HIT.get(), 0)
+                        .add(BlockTags.CRIMSON_STEMS, GeneralRegistrar.DRUMSTICK_CRIMSON_STEM_HIT.get(), 0)
+                        .add(BlockTags.WARPED_STEMS, GeneralRegistrar.DRUMSTICK_WARPED_STEM_HIT.get(), 0));
+    }
+
+    @Override
+    public void act(final DirectoryCache cache) throws IOException {
+        this.start();
+
+        final Path output = this.gen.getOutputFolder();
+        for (final Map.Entry<String, JsonObject> entry : this.toSerialize.entrySet())
+            IDataProvider.save(GeneralHelper.GSON, cache, entry.getValue(), output.resolve(
+                    "data/" + ExampleMod.ID + "/" + InstrumentSoundManager.FOLDER + "/" + entry.getKey() + ".json"));
+    }
+
+    /**
+     * Adds the sounds an instrument makes when hitting the associated blocks.
+     *
+     * @param name       The name of the file
+     * @param instrument The instrument hitting the blocks
+     * @param sounds     A consumer adding the sounds played when a block is hit
+     */
+    protected void add(final String name, final InstrumentItem instrument, final Consumer<SoundsBuilder> sounds) {
+        final JsonObject json = new JsonObject();
+        json.addProperty("replace", false);
+        json.addProperty("instrument", instrument.getRegistryName().toString());
+        final SoundsBuilder builder = new SoundsBuilder();
+        sounds.accept(builder);
+        json.add("sounds", builder.json);
+        this.toSerialize.put(name, json);
+    }
+
+    @Override
+    public String getName() { return "Instrument Sounds: " + ExampleMod.ID; }
+
+    /**
+     * A builder used to add the sounds played when a block is hit.
+     */
+    protected static class SoundsBuilder {
+
+        private final JsonObject json = new JsonObject();
+
+        /**
+         * Adds the sound played when the block is hit.
+         *
+         * @param  block The block being hit
+         * @param  sound The sound played
+         * @return       The builder instance
+         */
+        public SoundsBuilder add(final Block block, final SoundEvent sound) {
+            this.json.addProperty(block.getRegistryName().toString(), sound.getRegistryName().toString());
+            return this;
+        }
+
+        /**
+         * Adds the sound played when any block within the tag is hit.
+         *
+         * @param  tag      The tag of the blocks being hit
+         * @param  sound    The sound played
+         * @param  priority The priority over other matching entries
+         * @return          The builder instance
+         */
+        public SoundsBuilder add(final ITag.INamedTag<Block> tag, final SoundEvent sound, final int priority) {
+            final JsonObject entry = new JsonObject();
+            entry.addProperty("sound", sound.getRegistryName().toString());
+            entry.addProperty("priority", priority);
+            this.json.add("#" + tag.getName(), entry);
+            return this;
+        }
+    }
+}
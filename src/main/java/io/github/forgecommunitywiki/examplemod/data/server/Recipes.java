@@ -32,6 +32,7 @@ import net.minecraft.data.*;
 import net.minecraft.item.Items;
 import net.minecraft.item.crafting.IRecipeSerializer;
 import net.minecraft.item.crafting.Ingredient;
+import net.minecraft.tags.ItemTags;
 import net.minecraft.util.IItemProvider;
 import net.minecraft.util.ResourceLocation;
 
@@ -57,6 +58,11 @@ public class Recipes extends RecipeProvider {
         this.addDrumRecipe(Blocks.CRIMSON_STEM, GeneralRegistrar.CRIMSON_STEM_DRUM.get(), consumer);
         this.addDrumRecipe(Blocks.WARPED_STEM, GeneralRegistrar.WARPED_STEM_DRUM.get(), consumer);
 
+        ShapedRecipeBuilder.shapedRecipe(GeneralRegistrar.SEQUENCER.get()).patternLine("RCR").patternLine("XNX")
+                .patternLine("XXX").key('R', Items.REDSTONE).key('C', Items.CLOCK).key('N', Blocks.NOTE_BLOCK)
+                .key('X', ItemTags.PLANKS).addCriterion("has_note_block", RecipeProvider.hasItem(Blocks.NOTE_BLOCK))
+                .build(consumer);
+
         this.addDrumstickRecipe(Items.STICK, Items.STICK, GeneralRegistrar.DRUMSTICK.get(), consumer);
         this.addDrumstickRecipe(GeneralRegistrar.CHICKEN_LEG.get(), Items.BONE,
                 GeneralRegistrar.CHICKEN_DRUMSTICK.get(), consumer);
@@ -46,6 +46,7 @@ public class BlockTables extends BlockLootTables {
         this.registerDropSelfLootTable(GeneralRegistrar.DARK_OAK_LOG_DRUM.get());
         this.registerDropSelfLootTable(GeneralRegistrar.CRIMSON_STEM_DRUM.get());
         this.registerDropSelfLootTable(GeneralRegistrar.WARPED_STEM_DRUM.get());
+        this.registerDropSelfLootTable(GeneralRegistrar.SEQUENCER.get());
     }
 
     /**
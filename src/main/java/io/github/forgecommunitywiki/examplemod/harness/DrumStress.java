@@ -0,0 +1,382 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.forgecommunitywiki.examplemod.harness;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import com.mojang.authlib.GameProfile;
+
+import io.github.forgecommunitywiki.examplemod.GeneralRegistrar;
+import io.github.forgecommunitywiki.examplemod.block.RotatedInstrumentBlock;
+import io.github.forgecommunitywiki.examplemod.util.GeneralHelper;
+import io.netty.channel.embedded.EmbeddedChannel;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.RotatedPillarBlock;
+import net.minecraft.item.ItemStack;
+import net.minecraft.network.NetworkManager;
+import net.minecraft.network.PacketDirection;
+import net.minecraft.network.play.ServerPlayNetHandler;
+import net.minecraft.network.play.server.SCustomPayloadPlayPacket;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.Direction;
+import net.minecraft.util.Hand;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.BlockRayTraceResult;
+import net.minecraft.util.math.vector.Vector3d;
+import net.minecraft.world.World;
+import net.minecraft.world.gen.Heightmap;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.common.util.Constants;
+import net.minecraftforge.common.util.FakePlayer;
+import net.minecraftforge.common.util.FakePlayerFactory;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.fml.event.server.FMLServerStartedEvent;
+import net.minecraftforge.registries.ForgeRegistries;
+
+/**
+ * Hits thousands of drums with fake players on a dedicated server and reports
+ * how long the server takes to tick. It is enabled by the
+ * {@code runDrumStress} run configuration, which starts each run from a fresh
+ * flat world with mob spawning disabled, and configured through system
+ * properties:
+ *
+ * <ul>
+ * <li>{@code examplemod.drumStress.drums}: The number of drums placed of each
+ * wood type, enabling the stress test</li>
+ * <li>{@code examplemod.drumStress.players}: The number of fake players,
+ * defaulting to 64</li>
+ * <li>{@code examplemod.drumStress.rate}: The number of hits per second across
+ * all players, defaulting to 2000</li>
+ * <li>{@code examplemod.drumStress.warmup}: The number of ticks run before
+ * measuring, defaulting to 200</li>
+ * <li>{@code examplemod.drumStress.ticks}: The number of ticks measured,
+ * defaulting to 1200</li>
+ * <li>{@code examplemod.drumStress.seed}: The seed choosing which drums are
+ * hit, defaulting to zero</li>
+ * <li>{@code examplemod.drumStress.label}: The label of the run within the
+ * report, such as the commit being measured</li>
+ * </ul>
+ *
+ * The drums are laid out in a grid and each player stands within its own slice
+ * of the grid, hitting random drums of that slice. Even players hit with a
+ * drumstick, playing the drums, while odd players hit with an empty hand,
+ * tuning them. Every player also listens through an in-memory connection, so
+ * the notes and tunings are encoded and sent as they would be to real
+ * clients. Fake players are never rate limited, so every hit is played.
+ *
+ * <p>
+ * Once measured, a row of the tick time percentiles, the packets sent, and the
+ * allocation rate of the server thread is appended to
+ * {@code drum_stress.csv} within the working directory, after which the server
+ * is stopped.
+ */
+public final class DrumStress {
+
+    private static final String PROPERTY = "examplemod.drumStress.";
+    private static final String REPORT = "drum_stress.csv";
+    private static final String HEADER = "label,timestamp,drums,players,rate,ticks,mspt_mean,mspt_p50,mspt_p90,"
+            + "mspt_p99,mspt_max,hits,packets,mod_packets,packets_per_tick,allocated_mb_per_s";
+    /**
+     * The distance between two drums of the grid.
+     */
+    private static final int SPACING = 2;
+
+    /**
+     * The running stress test, or null if not yet started.
+     */
+    @Nullable
+    private static Run run;
+
+    /**
+     * Checks whether the stress test was requested for this run.
+     *
+     * @return True if the stress test should run, false otherwise
+     */
+    public static boolean isEnabled() {
+        return System.getProperty(DrumStress.PROPERTY + "drums") != null;
+    }
+
+    /**
+     * Places the drums and players once the server has started. The server is
+     * stopped if they could not be placed.
+     *
+     * @param event The server started event
+     */
+    public static void onServerStarted(final FMLServerStartedEvent event) {
+        final MinecraftServer server = event.getServer();
+        try {
+            DrumStress.run = new Run(server);
+        } catch (final RuntimeException e) {
+            GeneralHelper.LOGGER.error("The drum stress test has failed to start.", e);
+            server.initiateShutdown(false);
+        }
+    }
+
+    /**
+     * Hits the drums at the start of each tick and measures the tick at its end.
+     * The server is stopped once every tick has been measured.
+     *
+     * @param event The server tick event
+     */
+    public static void onServerTick(final TickEvent.ServerTickEvent event) {
+        final Run current = DrumStress.run;
+        if (current == null)
+            return;
+        if (event.phase == TickEvent.Phase.START) {
+            current.start();
+            return;
+        }
+
+        try {
+            if (current.end())
+                return;
+            current.report();
+        } catch (final RuntimeException e) {
+            GeneralHelper.LOGGER.error("The drum stress test has failed.", e);
+        }
+        DrumStress.run = null;
+        current.server.initiateShutdown(false);
+    }
+
+    /**
+     * The state of a stress test.
+     */
+    private static final class Run {
+
+        private final MinecraftServer server;
+        private final ServerWorld world;
+        private final Random random;
+        private final String label;
+        private final int drumsPerType;
+        private final int playerCount;
+        private final int rate;
+        private final int warmup;
+        private final long[] tickNanos;
+
+        private final List<BlockPos> drums = new ArrayList<>();
+        private final List<FakePlayer> players = new ArrayList<>();
+        private final List<EmbeddedChannel> channels = new ArrayList<>();
+
+        /**
+         * The hits owed to the players, as the rate is rarely a multiple of the
+         * tick rate.
+         */
+        private double owedHits;
+        private int tick;
+        private long tickStart;
+        private long hits;
+        private long packets;
+        private long modPackets;
+        /**
+         * The time measuring started in nanoseconds.
+         */
+        private long measureStart;
+        /**
+         * The bytes allocated by the server thread before measuring, or -1 if
+         * unknown.
+         */
+        private long allocatedStart;
+
+        private Run(final MinecraftServer server) {
+            this.server = server;
+            this.world = server.getWorld(World.OVERWORLD);
+            this.random = new Random(Long.getLong(DrumStress.PROPERTY + "seed", 0L));
+            this.label = System.getProperty(DrumStress.PROPERTY + "label", "");
+            this.drumsPerType = Integer.getInteger(DrumStress.PROPERTY + "drums");
+            this.playerCount = Integer.getInteger(DrumStress.PROPERTY + "players", 64);
+            this.rate = Integer.getInteger(DrumStress.PROPERTY + "rate", 2000);
+            this.warmup = Integer.getInteger(DrumStress.PROPERTY + "warmup", 200);
+            this.tickNanos = new long[Math.max(Integer.getInteger(DrumStress.PROPERTY + "ticks", 1200), 1)];
+
+            this.placeDrums();
+            this.placePlayers();
+            GeneralHelper.LOGGER.info("Drum stress test: {} drums, {} players, {} hits/s, {} warm up ticks, {} ticks",
+                    this.drums.size(), this.players.size(), this.rate, this.warmup, this.tickNanos.length);
+        }
+
+        /**
+         * Places the drums of every wood type in a square grid around the spawn,
+         * alternating between the types. The chunks of the grid are forced so the
+         * drums stay loaded.
+         */
+        private void placeDrums() {
+            final List<BlockState> types = new ArrayList<>();
+            ForgeRegistries.BLOCKS.getValues().stream().filter(block -> block instanceof RotatedInstrumentBlock)
+                    .forEach(block -> types.add(block.getDefaultState().with(RotatedPillarBlock.AXIS,
+                            Direction.Axis.Y)));
+            final int count = types.size() * this.drumsPerType;
+            final int side = (int) Math.ceil(Math.sqrt(count));
+            final BlockPos origin = this.world.getSpawnPoint();
+
+            for (int i = 0; i < count; i++) {
+                final int x = origin.getX() + (i % side) * DrumStress.SPACING;
+                final int z = origin.getZ() + (i / side) * DrumStress.SPACING;
+                this.world.forceChunk(x >> 4, z >> 4, true);
+                final BlockPos pos = new BlockPos(x, this.world.getHeight(Heightmap.Type.MOTION_BLOCKING, x, z), z);
+                this.world.setBlockState(pos, types.get(i % types.size()), Constants.BlockFlags.DEFAULT);
+                this.drums.add(pos);
+            }
+        }
+
+        /**
+         * Places the players, each standing on the middle drum of its slice of the
+         * grid and listening through an in-memory connection.
+         */
+        private void placePlayers() {
+            for (int i = 0; i < this.playerCount; i++) {
+                final FakePlayer player = FakePlayerFactory.get(this.world,
+                        new GameProfile(UUID.nameUUIDFromBytes(("DrumStress" + i).getBytes(StandardCharsets.UTF_8)),
+                                "[DrumStress " + i + "]"));
+                final BlockPos pos = this.drums.get(this.getSlice(i) + this.getSliceSize(i) / 2);
+                player.setPositionAndRotation(pos.getX() + 0.5d, pos.getY() + 1.0d, pos.getZ() + 0.5d, 0.0f,
+                        90.0f);
+                player.setHeldItem(Hand.MAIN_HAND,
+                        (i & 1) == 0 ? new ItemStack(GeneralRegistrar.DRUMSTICK.get()) : ItemStack.EMPTY);
+
+                final NetworkManager manager = new NetworkManager(PacketDirection.SERVERBOUND);
+                this.channels.add(new EmbeddedChannel(manager));
+                // Sets itself as the connection of the player
+                new ServerPlayNetHandler(this.server, manager, player);
+                this.world.addNewPlayer(player);
+                this.players.add(player);
+            }
+        }
+
+        /**
+         * @param  player The index of the player
+         * @return        The index of the first drum within the slice of the
+         *                player.
+         */
+        private int getSlice(final int player) {
+            return (int) ((long) this.drums.size() * player / this.playerCount);
+        }
+
+        /**
+         * @param  player The index of the player
+         * @return        The number of drums within the slice of the player.
+         */
+        private int getSliceSize(final int player) {
+            return Math.max(this.getSlice(player + 1) - this.getSlice(player), 1);
+        }
+
+        /**
+         * Starts measuring the tick and hits the drums owed this tick, spreading
+         * the hits between the players.
+         */
+        private void start() {
+            this.tickStart = System.nanoTime();
+            if (this.tick == this.warmup) {
+                this.measureStart = this.tickStart;
+                this.allocatedStart = LootSimulation.getAllocatedBytes();
+            }
+
+            this.owedHits += this.rate / 20.0d;
+            for (; this.owedHits >= 1.0d; this.owedHits--) {
+                final int index = this.random.nextInt(this.players.size());
+                final FakePlayer player = this.players.get(index);
+                final BlockPos pos = this.drums
+                        .get(Math.min(this.getSlice(index) + this.random.nextInt(this.getSliceSize(index)),
+                                this.drums.size() - 1));
+                this.world.getBlockState(pos).onBlockActivated(this.world, player, Hand.MAIN_HAND,
+                        new BlockRayTraceResult(new Vector3d(pos.getX() + 0.5d, pos.getY() + 1.0d, pos.getZ() + 0.5d),
+                                Direction.UP, pos, false));
+                if (this.tick >= this.warmup)
+                    this.hits++;
+            }
+        }
+
+        /**
+         * Ends measuring the tick and drains the packets sent to the players.
+         *
+         * @return True if there are more ticks to measure, false otherwise
+         */
+        private boolean end() {
+            final long elapsed = System.nanoTime() - this.tickStart;
+            final boolean measured = this.tick >= this.warmup;
+            for (final EmbeddedChannel channel : this.channels) {
+                Object packet;
+                while ((packet = channel.readOutbound()) != null)
+                    if (measured) {
+                        this.packets++;
+                        if (packet instanceof SCustomPayloadPlayPacket)
+                            this.modPackets++;
+                    }
+            }
+
+            if (measured)
+                this.tickNanos[this.tick - this.warmup] = elapsed;
+            return ++this.tick < this.warmup + this.tickNanos.length;
+        }
+
+        /**
+         * Logs the results and appends them to the report.
+         */
+        private void report() {
+            final long allocatedEnd = LootSimulation.getAllocatedBytes();
+            final double wallSeconds = (System.nanoTime() - this.measureStart) / 1.0E9d;
+            final String allocationRate = this.allocatedStart < 0 || allocatedEnd < 0 ? ""
+                    : String.format("%.1f", (allocatedEnd - this.allocatedStart) / 1.0E6d / wallSeconds);
+
+            final long[] sorted = this.tickNanos.clone();
+            Arrays.sort(sorted);
+            final String row = String.format("%s,%s,%d,%d,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%d,%d,%.1f,%s",
+                    this.label, Instant.now(), this.drums.size(), this.players.size(), this.rate, sorted.length,
+                    Arrays.stream(sorted).average().orElse(0d) / 1.0E6d, Run.percentile(sorted, 0.5d),
+                    Run.percentile(sorted, 0.9d), Run.percentile(sorted, 0.99d), sorted[sorted.length - 1] / 1.0E6d,
+                    this.hits, this.packets, this.modPackets, (double) this.packets / sorted.length, allocationRate);
+            GeneralHelper.LOGGER.info("Drum stress test results:\n{}\n{}", DrumStress.HEADER, row);
+
+            final Path path = Paths.get(DrumStress.REPORT);
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND)) {
+                if (Files.size(path) == 0L)
+                    writer.write(DrumStress.HEADER + System.lineSeparator());
+                writer.write(row + System.lineSeparator());
+            } catch (final IOException e) {
+                GeneralHelper.LOGGER.error("Could not write the drum stress report to {}.", path.toAbsolutePath(), e);
+            }
+        }
+
+        /**
+         * Gets a percentile of the sorted tick times in milliseconds.
+         */
+        private static double percentile(final long[] sorted, final double percentile) {
+            return sorted[Math.min((int) Math.ceil(percentile * sorted.length) - 1, sorted.length - 1)] / 1.0E6d;
+        }
+    }
+}
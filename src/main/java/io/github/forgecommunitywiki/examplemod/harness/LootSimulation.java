@@ -0,0 +1,377 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.harness;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import io.github.forgecommunitywiki.examplemod.util.GeneralHelper;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.loot.LootContext;
+import net.minecraft.loot.LootParameter;
+import net.minecraft.loot.LootParameterSet;
+import net.minecraft.loot.LootParameters;
+import net.minecraft.loot.LootTable;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.DamageSource;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.vector.Vector3d;
+import net.minecraft.world.World;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.common.util.FakePlayerFactory;
+import net.minecraftforge.fml.event.server.FMLServerStartedEvent;
+import net.minecraftforge.registries.ForgeRegistries;
+
+/**
+ * Rolls loot tables in bulk through the global loot modifiers of the loaded
+ * data packs and reports their throughput and drop distributions. The
+ * simulation runs once the dedicated server has started, after which the
+ * server is stopped. It is enabled by the {@code runLootSimulation} run
+ * configuration and configured through system properties:
+ *
+ * <ul>
+ * <li>{@code examplemod.lootSimulation.tables}: A comma separated list of the
+ * loot tables to roll</li>
+ * <li>{@code examplemod.lootSimulation.rolls}: The number of rolls per table,
+ * defaulting to one million</li>
+ * <li>{@code examplemod.lootSimulation.seed}: The seed of the rolls,
+ * defaulting to zero</li>
+ * <li>{@code examplemod.lootSimulation.parallelism}: The number of threads to
+ * roll on, defaulting to the number of processors</li>
+ * </ul>
+ *
+ * The rolls are split into fixed size tasks on a fork/join pool. Each task
+ * seeds its own random from the seed and its first roll, so the results are
+ * the same regardless of how the tasks are scheduled. The report is logged and
+ * written to {@code loot_simulation.txt} within the working directory.
+ */
+public final class LootSimulation {
+
+    private static final String PROPERTY = "examplemod.lootSimulation.";
+    /**
+     * The number of rolls a task performs before it is no longer split.
+     */
+    private static final int ROLLS_PER_TASK = 8192;
+    /**
+     * The width of the bars within the histograms.
+     */
+    private static final int BAR_WIDTH = 40;
+
+    /**
+     * Checks whether the simulation was requested for this run.
+     *
+     * @return True if the simulation should run, false otherwise
+     */
+    public static boolean isEnabled() {
+        return System.getProperty(LootSimulation.PROPERTY + "tables") != null;
+    }
+
+    /**
+     * Runs the simulation once the server has loaded its data packs and then
+     * stops the server.
+     *
+     * @param event The server started event
+     */
+    public static void onServerStarted(final FMLServerStartedEvent event) {
+        final MinecraftServer server = event.getServer();
+        try {
+            LootSimulation.run(server);
+        } catch (final RuntimeException e) {
+            GeneralHelper.LOGGER.error("The loot simulation has failed.", e);
+        } finally {
+            server.initiateShutdown(false);
+        }
+    }
+
+    /**
+     * Rolls every requested loot table and writes the report.
+     *
+     * @param server The running server
+     */
+    private static void run(final MinecraftServer server) {
+        final ServerWorld world = server.getWorld(World.OVERWORLD);
+        final int rolls = Integer.getInteger(LootSimulation.PROPERTY + "rolls", 1_000_000);
+        final long seed = Long.getLong(LootSimulation.PROPERTY + "seed", 0L);
+        final int parallelism = Integer.getInteger(LootSimulation.PROPERTY + "parallelism",
+                Runtime.getRuntime().availableProcessors());
+        final StringBuilder report = new StringBuilder();
+        report.append(String.format("Loot simulation: %,d rolls per table, seed %d, %d threads%n", rolls, seed,
+                parallelism));
+
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (final String table : System.getProperty(LootSimulation.PROPERTY + "tables").split(",")) {
+                final ResourceLocation id = new ResourceLocation(table.trim());
+                final LootTable lootTable = server.getLootTableManager().getLootTableFromLocation(id);
+                if (lootTable == LootTable.EMPTY_LOOT_TABLE) {
+                    GeneralHelper.LOGGER.warn("Skipping unknown loot table {} within the loot simulation.", id);
+                    continue;
+                }
+                final Fixture fixture = new Fixture(world, id, lootTable);
+
+                // Warm up the loot table and modifiers before measuring
+                pool.invoke(new RollTask(fixture, ~seed, 0, Math.max(rolls / 10, 1)));
+                final long start = System.nanoTime();
+                final Result result = pool.invoke(new RollTask(fixture, seed, 0, rolls));
+                result.report(report, id, System.nanoTime() - start);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        GeneralHelper.LOGGER.info("{}", report);
+        final Path path = Paths.get("loot_simulation.txt");
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write(report.toString());
+        } catch (final IOException e) {
+            GeneralHelper.LOGGER.error("Could not write the loot simulation report to {}.", path.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Gets the number of bytes the current thread has allocated, if the virtual
+     * machine supports measuring it.
+     *
+     * @return The number of allocated bytes, or -1 if unsupported
+     */
+    static long getAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory
+                    .getThreadMXBean();
+            if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled())
+                return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1L;
+    }
+
+    /**
+     * The parameters a loot table is rolled with. Every parameter the table's
+     * set allows is filled to resemble a player generating the loot: the player
+     * kills the entity the table belongs to, or breaks its block with an empty
+     * hand. The entities are shared between the threads, so loot tables which
+     * modify the world, such as those creating explorer maps, should not be
+     * simulated.
+     */
+    private static final class Fixture {
+
+        private final ServerWorld world;
+        private final ResourceLocation id;
+        private final LootTable table;
+        private final PlayerEntity player;
+        private final Entity subject;
+        private final BlockState block;
+        private final Vector3d origin;
+
+        private Fixture(final ServerWorld world, final ResourceLocation id, final LootTable table) {
+            this.world = world;
+            this.id = id;
+            this.table = table;
+            this.player = FakePlayerFactory.getMinecraft(world);
+            this.origin = new Vector3d(0.5, world.getSeaLevel(), 0.5);
+
+            // Resolve the entity or block from the loot table id, e.g. 'entities/chicken'
+            final String[] path = id.getPath().split("/");
+            final ResourceLocation owner = path.length > 1 ? new ResourceLocation(id.getNamespace(), path[1]) : null;
+            final EntityType<?> type = owner != null && path[0].equals("entities")
+                    ? ForgeRegistries.ENTITIES.getValue(owner)
+                    : null;
+            final Entity entity = type != null ? type.create(world) : null;
+            this.subject = entity != null ? entity : this.player;
+            this.subject.setPosition(this.origin.x, this.origin.y, this.origin.z);
+            final Block block = owner != null && path[0].equals("blocks") ? ForgeRegistries.BLOCKS.getValue(owner)
+                    : null;
+            this.block = (block != null ? block : Blocks.STONE).getDefaultState();
+        }
+
+        /**
+         * Creates the context a task rolls the loot table with.
+         *
+         * @param  random The random of the task
+         * @return        The loot context
+         */
+        private LootContext createContext(final Random random) {
+            final LootParameterSet set = this.table.getParameterSet();
+            final LootContext.Builder builder = new LootContext.Builder(this.world).withRandom(random);
+            Fixture.with(builder, set, LootParameters.THIS_ENTITY, this.subject);
+            Fixture.with(builder, set, LootParameters.LAST_DAMAGE_PLAYER, this.player);
+            Fixture.with(builder, set, LootParameters.DAMAGE_SOURCE, DamageSource.causePlayerDamage(this.player));
+            Fixture.with(builder, set, LootParameters.KILLER_ENTITY, this.player);
+            Fixture.with(builder, set, LootParameters.DIRECT_KILLER_ENTITY, this.player);
+            Fixture.with(builder, set, LootParameters.ORIGIN, this.origin);
+            Fixture.with(builder, set, LootParameters.BLOCK_STATE, this.block);
+            Fixture.with(builder, set, LootParameters.TOOL, ItemStack.EMPTY);
+            final LootContext context = builder.build(set);
+            context.setQueriedLootTableId(this.id);
+            return context;
+        }
+
+        /**
+         * Adds the parameter to the context if the set allows it.
+         */
+        private static <T> void with(final LootContext.Builder builder, final LootParameterSet set,
+                final LootParameter<T> parameter, final T value) {
+            if (set.getAllParameters().contains(parameter))
+                builder.withParameter(parameter, value);
+        }
+    }
+
+    /**
+     * Rolls a range of the loot, splitting it in half until the range is small
+     * enough to roll on a single thread.
+     */
+    private static final class RollTask extends RecursiveTask<Result> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Fixture fixture;
+        private final long seed;
+        private final int from;
+        private final int to;
+
+        private RollTask(final Fixture fixture, final long seed, final int from, final int to) {
+            this.fixture = fixture;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (this.to - this.from > LootSimulation.ROLLS_PER_TASK) {
+                final int middle = (this.from + this.to) >>> 1;
+                final RollTask left = new RollTask(this.fixture, this.seed, this.from, middle);
+                left.fork();
+                final Result result = new RollTask(this.fixture, this.seed, middle, this.to).compute();
+                result.merge(left.join());
+                return result;
+            }
+
+            final Result result = new Result();
+            final LootContext context = this.fixture
+                    .createContext(new Random(HashCommon.mix(this.seed + this.from)));
+            final long allocated = LootSimulation.getAllocatedBytes();
+            for (int roll = this.from; roll < this.to; roll++)
+                result.record(this.fixture.table.generate(context));
+            result.allocated = allocated < 0 ? -1L : LootSimulation.getAllocatedBytes() - allocated;
+            return result;
+        }
+    }
+
+    /**
+     * The tallied loot of a range of rolls.
+     */
+    private static final class Result {
+
+        private long rolls;
+        /**
+         * The number of bytes allocated while rolling, or -1 if unknown.
+         */
+        private long allocated;
+        private final Reference2LongOpenHashMap<Item> stacks = new Reference2LongOpenHashMap<>();
+        private final Reference2LongOpenHashMap<Item> items = new Reference2LongOpenHashMap<>();
+        private final Int2LongOpenHashMap stackCounts = new Int2LongOpenHashMap();
+        private final Int2LongOpenHashMap stacksPerRoll = new Int2LongOpenHashMap();
+
+        private void record(final List<ItemStack> loot) {
+            this.rolls++;
+            this.stacksPerRoll.addTo(loot.size(), 1L);
+            for (int i = 0; i < loot.size(); i++) {
+                final ItemStack stack = loot.get(i);
+                this.stacks.addTo(stack.getItem(), 1L);
+                this.items.addTo(stack.getItem(), stack.getCount());
+                this.stackCounts.addTo(stack.getCount(), 1L);
+            }
+        }
+
+        private void merge(final Result other) {
+            this.rolls += other.rolls;
+            this.allocated = this.allocated < 0 || other.allocated < 0 ? -1L : this.allocated + other.allocated;
+            other.stacks.reference2LongEntrySet().forEach(entry -> this.stacks.addTo(entry.getKey(),
+                    entry.getLongValue()));
+            other.items.reference2LongEntrySet().forEach(entry -> this.items.addTo(entry.getKey(),
+                    entry.getLongValue()));
+            other.stackCounts.int2LongEntrySet().forEach(entry -> this.stackCounts.addTo(entry.getIntKey(),
+                    entry.getLongValue()));
+            other.stacksPerRoll.int2LongEntrySet().forEach(entry -> this.stacksPerRoll.addTo(entry.getIntKey(),
+                    entry.getLongValue()));
+        }
+
+        private void report(final StringBuilder report, final ResourceLocation id, final long elapsed) {
+            report.append(String.format("%n%s%n", id));
+            report.append(String.format("  %,.0f rolls/s", this.rolls * 1e9 / elapsed));
+            if (this.allocated >= 0)
+                report.append(String.format(", %,.1f B/roll", (double) this.allocated / this.rolls));
+            report.append(String.format("%n%n  Items (stacks, items, items per roll):%n"));
+
+            final List<Reference2LongMap.Entry<Item>> items = new ArrayList<>(this.items.reference2LongEntrySet());
+            items.sort((a, b) -> Long.compare(b.getLongValue(), a.getLongValue()));
+            for (final Reference2LongMap.Entry<Item> entry : items)
+                report.append(String.format("    %-40s %,14d %,14d %10.4f%n", entry.getKey().getRegistryName(),
+                        this.stacks.getLong(entry.getKey()), entry.getLongValue(),
+                        (double) entry.getLongValue() / this.rolls));
+
+            report.append(String.format("%n  Stack counts:%n"));
+            this.appendHistogram(report, this.stackCounts);
+            report.append(String.format("%n  Stacks per roll:%n"));
+            this.appendHistogram(report, this.stacksPerRoll);
+        }
+
+        private void appendHistogram(final StringBuilder report, final Int2LongOpenHashMap histogram) {
+            final long total = histogram.values().stream().mapToLong(Long::longValue).sum();
+            final long max = histogram.values().stream().mapToLong(Long::longValue).max().orElse(1L);
+            final List<Int2LongMap.Entry> buckets = new ArrayList<>(histogram.int2LongEntrySet());
+            buckets.sort((a, b) -> Integer.compare(a.getIntKey(), b.getIntKey()));
+            for (final Int2LongMap.Entry bucket : buckets) {
+                final StringBuilder bar = new StringBuilder();
+                for (int i = (int) (bucket.getLongValue() * LootSimulation.BAR_WIDTH / max); i > 0; i--)
+                    bar.append('#');
+                report.append(String.format("    %4d %,14d %6.2f%% %s%n", bucket.getIntKey(), bucket.getLongValue(),
+                        bucket.getLongValue() * 100.0 / total, bar));
+            }
+        }
+    }
+}
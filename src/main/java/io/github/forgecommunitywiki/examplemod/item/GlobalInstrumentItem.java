@@ -24,9 +24,10 @@
 
 package io.github.forgecommunitywiki.examplemod.item;
 
-import java.util.Optional;
 import java.util.function.Supplier;
 
+import javax.annotation.Nullable;
+
 import net.minecraft.block.BlockState;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.SoundEvent;
@@ -63,8 +64,9 @@ public class GlobalInstrumentItem extends InstrumentItem {
         this.sound = LazyOptional.of(() -> sound.get());
     }
 
+    @Nullable
     @Override
-    public Optional<SoundEvent> getInstrumentSound(final ItemStack stack, final BlockState state) {
-        return this.sound.resolve();
+    public SoundEvent getInstrumentSoundOrNull(final ItemStack stack, final BlockState state) {
+        return this.sound.orElse(null);
     }
 }
@@ -25,8 +25,17 @@
 package io.github.forgecommunitywiki.examplemod.item;
 
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
 
 import io.github.forgecommunitywiki.examplemod.GeneralRegistrar;
+import io.github.forgecommunitywiki.examplemod.profiling.FlightEvents;
+import io.github.forgecommunitywiki.examplemod.sound.InstrumentRateLimiter;
+import io.github.forgecommunitywiki.examplemod.sound.NoteEvent;
+import io.github.forgecommunitywiki.examplemod.sound.NoteEventBatcher;
+import io.github.forgecommunitywiki.examplemod.sound.PitchTables;
+import io.github.forgecommunitywiki.examplemod.util.Metrics;
 import net.minecraft.block.BlockState;
 import net.minecraft.item.*;
 import net.minecraft.util.*;
@@ -39,6 +48,15 @@ import net.minecraft.world.World;
  */
 public class InstrumentItem extends Item {
 
+    /**
+     * The number of instruments constructed so far.
+     */
+    private static final AtomicInteger INSTRUMENT_COUNT = new AtomicInteger();
+
+    /**
+     * The index of the instrument used to look up its sounds.
+     */
+    private final int instrumentIndex;
     /**
      * The burn time of the item. If it shouldn't burn, this is -1.
      */
@@ -55,6 +73,7 @@ public class InstrumentItem extends Item {
 
     public InstrumentItem(final int burnTime, final Properties properties) {
         super(properties);
+        this.instrumentIndex = InstrumentItem.INSTRUMENT_COUNT.getAndIncrement();
         this.burnTime = burnTime;
     }
 
@@ -64,12 +83,41 @@ public class InstrumentItem extends Item {
     @Override
     public ActionResultType onItemUse(final ItemUseContext context) {
         final World world = context.getWorld();
+        final long start = world.isRemote ? 0L : Metrics.INSTRUMENT_ITEM_USE.start();
+        final Object event = world.isRemote ? null : FlightEvents.beginInstrumentHit();
+        final BlockState state = world.getBlockState(context.getPos());
+        try {
+            return this.useOnBlock(context, state, event);
+        } finally {
+            Metrics.INSTRUMENT_ITEM_USE.stop(start);
+            FlightEvents.commitInstrumentHit(event, context.getPos(), state.getBlock(), context.getItem());
+        }
+    }
+
+    /**
+     * Plays the instrument sound of the block being used on, if any.
+     *
+     * @param  context The item use context
+     * @param  state   The state of the block being used on
+     * @param  event   The handle of the recorded hit, or null if none
+     * @return         The result of using the item
+     */
+    private ActionResultType useOnBlock(final ItemUseContext context, final BlockState state,
+            @Nullable final Object event) {
+        final World world = context.getWorld();
         final BlockPos pos = context.getPos();
-        return this.getInstrumentSound(context.getItem(), world.getBlockState(pos)).map(sound -> {
-            world.playSound(context.getPlayer(), pos, sound, SoundCategory.BLOCKS, 0.1f,
-                    (float) Math.pow(2d, (Item.random.nextInt(24) - 12) / 12d));
-            return ActionResultType.func_233537_a_(world.isRemote);
-        }).orElseGet(() -> super.onItemUse(context));
+        final SoundEvent sound = this.getInstrumentSoundOrNull(context.getItem(), state);
+        if (!world.isRemote)
+            (sound != null ? Metrics.SOUND_LOOKUP_HITS : Metrics.SOUND_LOOKUP_MISSES).increment();
+        if (sound == null)
+            return super.onItemUse(context);
+        if (!InstrumentRateLimiter.tryAcquire(context.getPlayer()))
+            return ActionResultType.CONSUME;
+
+        FlightEvents.setInstrumentHitSound(event, sound);
+        NoteEventBatcher.play(world, context.getPlayer(), pos, sound, SoundCategory.BLOCKS, 0.1f,
+                PitchTables.getPitch(null, Item.random.nextInt(24)), NoteEvent.NO_NOTE);
+        return ActionResultType.func_233537_a_(world.isRemote);
     }
 
     /**
@@ -80,11 +128,35 @@ public class InstrumentItem extends Item {
      * @return       An {@link Optional} containing the sound event if available
      */
     public Optional<SoundEvent> getInstrumentSound(final ItemStack stack, final BlockState state) {
+        return Optional.ofNullable(this.getInstrumentSoundOrNull(stack, state));
+    }
+
+    /**
+     * Gets the instrument sound to play if present. This should be preferred over
+     * {@link #getInstrumentSound(ItemStack, BlockState)} when called every hit as
+     * it does not allocate.
+     *
+     * @param  stack The stack hitting the block
+     * @param  state The state of the block being hit
+     * @return       The sound event if available, null otherwise
+     */
+    @Nullable
+    public SoundEvent getInstrumentSoundOrNull(final ItemStack stack, final BlockState state) {
         return stack.getItem() instanceof InstrumentItem
-                ? GeneralRegistrar.getInstrumentElementSounds((InstrumentItem) stack.getItem(), state.getBlock())
-                : Optional.empty();
+                ? GeneralRegistrar.getInstrumentElementSound((InstrumentItem) stack.getItem(), state.getBlock())
+                : null;
     }
 
+    /**
+     * @return The index of the instrument used to look up its sounds.
+     */
+    public final int getInstrumentIndex() { return this.instrumentIndex; }
+
+    /**
+     * @return The number of instruments constructed so far.
+     */
+    public static int getInstrumentCount() { return InstrumentItem.INSTRUMENT_COUNT.get(); }
+
     @Override
     public int getBurnTime(final ItemStack itemStack) {
         return this.burnTime;
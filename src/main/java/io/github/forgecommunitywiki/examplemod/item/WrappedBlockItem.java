@@ -26,8 +26,8 @@ package io.github.forgecommunitywiki.examplemod.item;
 
 import io.github.forgecommunitywiki.examplemod.block.IWrappedState;
 import net.minecraft.block.Block;
-import net.minecraft.item.*;
-import net.minecraft.tileentity.AbstractFurnaceTileEntity;
+import net.minecraft.item.BlockItem;
+import net.minecraft.item.ItemStack;
 
 /**
  * A {@link BlockItem} that borrows the properties of a wrapped instance held
@@ -45,11 +45,8 @@ public class WrappedBlockItem<T extends Block & IWrappedState> extends BlockItem
      * Used to mimic the properties of the wrapped block. For example, a block that
      * holds an oak log will have the same burn time as the oak log.
      */
-    @SuppressWarnings("deprecation") // Forge deprecation, only used to get vanilla burn times
     @Override
     public int getBurnTime(final ItemStack itemStack) {
-        final Item item = ((IWrappedState) this.getBlock()).getWrappedState().getBlock().asItem();
-        final int time = item.getBurnTime(itemStack);
-        return time == -1 ? AbstractFurnaceTileEntity.getBurnTimes().getOrDefault(item, -1) : time;
+        return ((IWrappedState) this.getBlock()).getWrappedProperties().getBurnTime();
     }
 }
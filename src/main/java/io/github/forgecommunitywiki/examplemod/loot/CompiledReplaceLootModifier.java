@@ -0,0 +1,252 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.loot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+
+import com.google.gson.*;
+
+import io.github.forgecommunitywiki.examplemod.GeneralRegistrar;
+import io.github.forgecommunitywiki.examplemod.profiling.FlightEvents;
+import io.github.forgecommunitywiki.examplemod.util.Metrics;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.loot.LootContext;
+import net.minecraft.loot.LootSerializers;
+import net.minecraft.loot.conditions.ILootCondition;
+import net.minecraft.util.JSONUtils;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.common.loot.GlobalLootModifierSerializer;
+
+/**
+ * A loot modifier which applies multiple {@link ReplaceLootModifier} rules in a
+ * single pass. The result is the same as applying each rule one after another,
+ * but the loot list is only iterated once and rewritten in place.
+ *
+ * <p>
+ * Each rule is checked in order the same as it would be as a separate
+ * modifier: its scope first, then whether its target is within the loot left by
+ * the previous rules, and only then its conditions. Each stack then follows the
+ * chain of passing rules targeting its item, being split into as few stacks as
+ * the replacement allows after every rule.
+ */
+public class CompiledReplaceLootModifier extends ScopedLootModifier {
+
+    /**
+     * The rules in the order they are applied.
+     */
+    private final ReplaceLootModifier[] rules;
+    /**
+     * The indices of the rules targeting each item, in ascending order.
+     */
+    private final Reference2ObjectOpenHashMap<Item, int[]> targets;
+
+    public CompiledReplaceLootModifier(final ILootCondition[] conditionsIn, final List<ReplaceLootModifier> rules) {
+        this(conditionsIn, LootScope.EMPTY, rules);
+    }
+
+    public CompiledReplaceLootModifier(final ILootCondition[] conditionsIn, final LootScope scope,
+            final List<ReplaceLootModifier> rules) {
+        super(conditionsIn, scope);
+        this.rules = rules.toArray(new ReplaceLootModifier[0]);
+
+        final Reference2ObjectOpenHashMap<Item, IntArrayList> indices = new Reference2ObjectOpenHashMap<>();
+        for (int i = 0; i < this.rules.length; i++)
+            indices.computeIfAbsent(this.rules[i].getTarget(), item -> new IntArrayList()).add(i);
+        this.targets = new Reference2ObjectOpenHashMap<>(indices.size());
+        indices.forEach((item, list) -> this.targets.put(item, list.toIntArray()));
+    }
+
+    /**
+     * Checks whether any rule targets an item within the loot.
+     */
+    @Override
+    protected boolean isApplicable(final List<ItemStack> generatedLoot) {
+        for (int i = 0; i < generatedLoot.size(); i++)
+            if (this.targets.containsKey(generatedLoot.get(i).getItem()))
+                return true;
+        return false;
+    }
+
+    @Override
+    protected List<ItemStack> doApply(List<ItemStack> generatedLoot, final LootContext context) {
+        final long start = Metrics.REPLACE_LOOT_APPLY.start();
+        final Object event = FlightEvents.beginLootModifier();
+        final int stacksIn = generatedLoot.size();
+        Metrics.REPLACE_LOOT_ITEMS_IN.add(stacksIn);
+        final boolean[] passed = new boolean[this.rules.length];
+        boolean anyPassed = false;
+        for (int i = 0; i < this.rules.length; i++) {
+            final ReplaceLootModifier rule = this.rules[i];
+            anyPassed |= passed[i] = rule.getScope().test(context)
+                    && this.isPresent(generatedLoot, passed, i, rule.getTarget()) && rule.test(context);
+        }
+        if (!anyPassed) {
+            Metrics.REPLACE_LOOT_ITEMS_OUT.add(stacksIn);
+            Metrics.REPLACE_LOOT_APPLY.stop(start);
+            FlightEvents.commitLootModifier(event, GeneralRegistrar.COMPILED_REPLACE_LOOT.getId(), context, stacksIn,
+                    stacksIn, 0);
+            return generatedLoot;
+        }
+
+        // Loot lists from other modifiers may not be modifiable
+        if (!(generatedLoot instanceof ArrayList))
+            generatedLoot = new ArrayList<>(generatedLoot);
+        final ListIterator<ItemStack> iterator = generatedLoot.listIterator();
+        int replacements = 0;
+        while (iterator.hasNext()) {
+            final ItemStack stack = iterator.next();
+            final int rule = this.nextRule(passed, stack.getItem(), 0);
+            if (rule == -1)
+                continue;
+            replacements++;
+            // A stack replaced with nothing, such as an empty stack, is removed
+            if (this.replace(iterator, passed, rule, stack.getCount(), true))
+                iterator.remove();
+        }
+        Metrics.REPLACE_LOOT_ITEMS_OUT.add(generatedLoot.size());
+        Metrics.REPLACE_LOOT_APPLY.stop(start);
+        FlightEvents.commitLootModifier(event, GeneralRegistrar.COMPILED_REPLACE_LOOT.getId(), context, stacksIn,
+                generatedLoot.size(), replacements);
+        return generatedLoot;
+    }
+
+    /**
+     * Checks whether the item would be within the loot after applying the passing
+     * rules before the specified rule.
+     *
+     * @param  generatedLoot The loot before any rule is applied
+     * @param  passed        Whether each rule before {@code before} passed
+     * @param  before        The index of the rule being checked
+     * @param  item          The item to look for
+     * @return               True if the item would be present, false otherwise
+     */
+    private boolean isPresent(final List<ItemStack> generatedLoot, final boolean[] passed, final int before,
+            final Item item) {
+        for (int i = 0; i < generatedLoot.size(); i++) {
+            Item current = generatedLoot.get(i).getItem();
+            for (int rule = this.nextRule(passed, current, 0); rule != -1
+                    && rule < before; rule = this.nextRule(passed, current, rule + 1))
+                current = this.rules[rule].getReplacement().getItem();
+            if (current == item)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the next passing rule targeting the item.
+     *
+     * @param  passed Whether each rule passed its conditions
+     * @param  item   The item to replace
+     * @param  from   The index of the first rule to check
+     * @return        The index of the rule, or -1 if there is none
+     */
+    private int nextRule(final boolean[] passed, final Item item, final int from) {
+        final int[] indices = this.targets.get(item);
+        if (indices != null)
+            for (final int index : indices)
+                if (index >= from && passed[index])
+                    return index;
+        return -1;
+    }
+
+    /**
+     * Replaces the count of items using the rule, then applies any later rules to
+     * each resulting stack. The first stack produced replaces the current element
+     * of the iterator while the rest are inserted after it.
+     *
+     * @param  iterator The iterator positioned on the stack being replaced
+     * @param  passed   Whether each rule passed its conditions
+     * @param  rule     The index of the rule to apply
+     * @param  count    The number of items to replace
+     * @param  first    Whether no stacks have been produced yet
+     * @return          Whether no stacks have been produced yet after this call
+     */
+    private boolean replace(final ListIterator<ItemStack> iterator, final boolean[] passed, final int rule,
+            int count, boolean first) {
+        final ItemStack replacement = this.rules[rule].getReplacement();
+        final int next = this.nextRule(passed, replacement.getItem(), rule + 1);
+        while (count > 0) {
+            final int stackCount = Math.min(count, replacement.getMaxStackSize());
+            count -= stackCount;
+            if (next != -1)
+                first = this.replace(iterator, passed, next, stackCount, first);
+            else {
+                final ItemStack stack = replacement.copy();
+                stack.setCount(stackCount);
+                if (first)
+                    iterator.set(stack);
+                else
+                    iterator.add(stack);
+                first = false;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * A serializer used to decode the JSON for our compiled loot modifiers. Each
+     * rule within {@code rules} has the same format as a
+     * {@link ReplaceLootModifier}.
+     */
+    public static class Serializer extends GlobalLootModifierSerializer<CompiledReplaceLootModifier> {
+
+        /**
+         * A gson instance used to read the conditions of each rule.
+         */
+        private static final Gson GSON = LootSerializers.func_237388_c_().create();
+
+        @Override
+        public CompiledReplaceLootModifier read(final ResourceLocation location, final JsonObject object,
+                final ILootCondition[] ailootcondition) {
+            final List<ReplaceLootModifier> rules = new ArrayList<>();
+            for (final JsonElement element : JSONUtils.getJsonArray(object, "rules")) {
+                final JsonObject rule = JSONUtils.getJsonObject(element, "rule");
+                final ILootCondition[] conditions = rule.has("conditions")
+                        ? Serializer.GSON.fromJson(rule.get("conditions"), ILootCondition[].class)
+                        : new ILootCondition[0];
+                rules.add(ReplaceLootModifier.Serializer.readModifier(rule, conditions));
+            }
+            return new CompiledReplaceLootModifier(ailootcondition, LootScope.read(object), rules);
+        }
+
+        @Override
+        public JsonObject write(final CompiledReplaceLootModifier instance) {
+            final JsonObject json = this.makeConditions(instance.conditions);
+            instance.scope.write(json);
+            final JsonArray rules = new JsonArray();
+            for (final ReplaceLootModifier rule : instance.rules)
+                rules.add(ReplaceLootModifier.Serializer.writeModifier(this.makeConditions(rule.getConditions()),
+                        rule));
+            json.add("rules", rules);
+            return json;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.loot;
+
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+
+import net.minecraft.loot.LootContext;
+import net.minecraft.loot.LootParameter;
+import net.minecraft.loot.LootParameterSet;
+import net.minecraft.loot.LootParameterSets;
+import net.minecraft.loot.LootTable;
+import net.minecraft.util.JSONUtils;
+import net.minecraft.util.ResourceLocation;
+
+/**
+ * Limits which loot tables a loot modifier applies to. A modifier can be
+ * limited to specific loot table ids within {@code loot_tables} and to the
+ * parameter sets a loot table is generated with within
+ * {@code parameter_sets}. A context matches a parameter set if the queried loot
+ * table was built with that set. If the loot table is unknown, such as loot
+ * generated from a table not loaded by the loot table manager, the context
+ * matches any set whose required parameters it holds instead. Both are
+ * optional, with an empty scope matching every loot table.
+ */
+public final class LootScope {
+
+    /**
+     * A scope which matches every loot table.
+     */
+    public static final LootScope EMPTY = new LootScope(ImmutableSet.of(), ImmutableList.of());
+
+    private final Set<ResourceLocation> lootTables;
+    private final List<LootParameterSet> parameterSets;
+
+    public LootScope(final Set<ResourceLocation> lootTables, final List<LootParameterSet> parameterSets) {
+        this.lootTables = ImmutableSet.copyOf(lootTables);
+        this.parameterSets = ImmutableList.copyOf(parameterSets);
+    }
+
+    /**
+     * Checks whether the loot being generated is within the scope.
+     *
+     * @param  context The loot context
+     * @return         True if the loot is within the scope, false otherwise
+     */
+    public boolean test(final LootContext context) {
+        if (!this.lootTables.isEmpty() && !this.lootTables.contains(context.getQueriedLootTableId()))
+            return false;
+        if (this.parameterSets.isEmpty())
+            return true;
+        final LootParameterSet queried = LootScope.getParameterSet(context);
+        for (final LootParameterSet set : this.parameterSets)
+            if (queried != null ? set == queried : LootScope.hasAll(context, set))
+                return true;
+        return false;
+    }
+
+    /**
+     * Gets the parameter set the queried loot table was built with.
+     *
+     * @param  context The loot context
+     * @return         The parameter set, or null if the loot table is unknown
+     */
+    @Nullable
+    private static LootParameterSet getParameterSet(final LootContext context) {
+        final ResourceLocation id = context.getQueriedLootTableId();
+        if (id == null)
+            return null;
+        final LootTable table = context.getWorld().getServer().getLootTableManager().getLootTableFromLocation(id);
+        return table != LootTable.EMPTY_LOOT_TABLE ? table.getParameterSet() : null;
+    }
+
+    /**
+     * Checks whether the context holds every parameter required by the set.
+     *
+     * @param  context The loot context
+     * @param  set     The parameter set
+     * @return         True if all parameters are present, false otherwise
+     */
+    private static boolean hasAll(final LootContext context, final LootParameterSet set) {
+        for (final LootParameter<?> parameter : set.getRequiredParameters())
+            if (!context.has(parameter))
+                return false;
+        return true;
+    }
+
+    /**
+     * Reads the scope from the modifier JSON.
+     *
+     * @param  object              The JSON of the modifier
+     * @return                     The read scope
+     * @throws JsonSyntaxException If a parameter set does not exist
+     */
+    public static LootScope read(final JsonObject object) {
+        if (!object.has("loot_tables") && !object.has("parameter_sets"))
+            return LootScope.EMPTY;
+
+        final ImmutableSet.Builder<ResourceLocation> lootTables = ImmutableSet.builder();
+        for (final JsonElement element : JSONUtils.getJsonArray(object, "loot_tables", new JsonArray()))
+            lootTables.add(new ResourceLocation(JSONUtils.getString(element, "loot_table")));
+
+        final ImmutableList.Builder<LootParameterSet> parameterSets = ImmutableList.builder();
+        for (final JsonElement element : JSONUtils.getJsonArray(object, "parameter_sets", new JsonArray())) {
+            final String name = JSONUtils.getString(element, "parameter_set");
+            final LootParameterSet set = LootParameterSets.getValue(new ResourceLocation(name));
+            if (set == null)
+                throw new JsonSyntaxException("Unknown loot parameter set: " + name);
+            parameterSets.add(set);
+        }
+        return new LootScope(lootTables.build(), parameterSets.build());
+    }
+
+    /**
+     * Writes the scope to the modifier JSON if not empty.
+     *
+     * @param object The JSON of the modifier
+     */
+    public void write(final JsonObject object) {
+        if (!this.lootTables.isEmpty()) {
+            final JsonArray lootTables = new JsonArray();
+            this.lootTables.forEach(id -> lootTables.add(id.toString()));
+            object.add("loot_tables", lootTables);
+        }
+        if (!this.parameterSets.isEmpty()) {
+            final JsonArray parameterSets = new JsonArray();
+            this.parameterSets.forEach(set -> parameterSets.add(LootParameterSets.getKey(set).toString()));
+            object.add("parameter_sets", parameterSets);
+        }
+    }
+}
@@ -36,21 +36,24 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import com.mojang.serialization.JsonOps;
 
+import io.github.forgecommunitywiki.examplemod.GeneralRegistrar;
+import io.github.forgecommunitywiki.examplemod.profiling.FlightEvents;
 import io.github.forgecommunitywiki.examplemod.util.GeneralHelper;
+import io.github.forgecommunitywiki.examplemod.util.Metrics;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.loot.LootContext;
 import net.minecraft.loot.conditions.ILootCondition;
 import net.minecraft.util.*;
 import net.minecraftforge.common.loot.GlobalLootModifierSerializer;
-import net.minecraftforge.common.loot.LootModifier;
 import net.minecraftforge.registries.ForgeRegistries;
 
 /**
  * A loot modifier used to replace the target item with the associated
- * replacement if all the conditions have returned true.
+ * replacement if all the conditions have returned true. The conditions are
+ * only evaluated if the target is within the loot.
  */
-public class ReplaceLootModifier extends LootModifier {
+public class ReplaceLootModifier extends ScopedLootModifier {
 
     /**
      * The target item to replace.
@@ -62,16 +65,55 @@ public class ReplaceLootModifier extends LootModifier {
     private final ItemStack replacement;
 
     public ReplaceLootModifier(final ILootCondition[] conditionsIn, final Item target, final ItemStack replacement) {
-        super(conditionsIn);
+        this(conditionsIn, LootScope.EMPTY, target, replacement);
+    }
+
+    public ReplaceLootModifier(final ILootCondition[] conditionsIn, final LootScope scope, final Item target,
+            final ItemStack replacement) {
+        super(conditionsIn, scope);
         this.target = target;
         this.replacement = replacement;
     }
 
+    /**
+     * Checks whether the target is within the loot.
+     */
+    @Override
+    protected boolean isApplicable(final List<ItemStack> generatedLoot) {
+        for (int i = 0; i < generatedLoot.size(); i++)
+            if (generatedLoot.get(i).getItem() == this.target)
+                return true;
+        return false;
+    }
+
     @Override
     protected List<ItemStack> doApply(final List<ItemStack> generatedLoot, final LootContext context) {
-        return generatedLoot.stream().flatMap(
+        final long start = Metrics.REPLACE_LOOT_APPLY.start();
+        final Object event = FlightEvents.beginLootModifier();
+        final List<ItemStack> loot = generatedLoot.stream().flatMap(
                 stack -> stack.getItem() == this.target ? this.createStacks(stack.getCount()) : Stream.of(stack))
                 .collect(Collectors.toList());
+        Metrics.REPLACE_LOOT_ITEMS_IN.add(generatedLoot.size());
+        Metrics.REPLACE_LOOT_ITEMS_OUT.add(loot.size());
+        Metrics.REPLACE_LOOT_APPLY.stop(start);
+        if (event != null)
+            FlightEvents.commitLootModifier(event, GeneralRegistrar.REPLACE_LOOT.getId(), context,
+                    generatedLoot.size(), loot.size(), this.countTargets(generatedLoot));
+        return loot;
+    }
+
+    /**
+     * Counts the stacks of the target within the loot.
+     *
+     * @param  generatedLoot The loot generated so far
+     * @return               The number of stacks to replace
+     */
+    private int countTargets(final List<ItemStack> generatedLoot) {
+        int count = 0;
+        for (int i = 0; i < generatedLoot.size(); i++)
+            if (generatedLoot.get(i).getItem() == this.target)
+                count++;
+        return count;
     }
 
     /**
@@ -91,6 +133,12 @@ public class ReplaceLootModifier extends LootModifier {
         return list.stream();
     }
 
+    Item getTarget() { return this.target; }
+
+    ItemStack getReplacement() { return this.replacement; }
+
+    ILootCondition[] getConditions() { return this.conditions; }
+
     /**
      * A serializer used to decode the JSON for our loot modifiers.
      */
@@ -104,6 +152,22 @@ public class ReplaceLootModifier extends LootModifier {
         @Override
         public ReplaceLootModifier read(final ResourceLocation location, final JsonObject object,
                 final ILootCondition[] ailootcondition) {
+            return Serializer.readModifier(object, ailootcondition);
+        }
+
+        @Override
+        public JsonObject write(final ReplaceLootModifier instance) {
+            return Serializer.writeModifier(this.makeConditions(instance.conditions), instance);
+        }
+
+        /**
+         * Reads the scope, target, and replacement of a modifier.
+         *
+         * @param  object     The JSON of the modifier
+         * @param  conditions The conditions of the modifier
+         * @return            The read modifier
+         */
+        static ReplaceLootModifier readModifier(final JsonObject object, final ILootCondition[] conditions) {
             final Item target = ForgeRegistries.ITEMS
                     .getValue(new ResourceLocation(JSONUtils.getString(object, "target")));
             final ItemStack replacement = ItemStack.CODEC
@@ -113,12 +177,18 @@ public class ReplaceLootModifier extends LootModifier {
                                     str -> GeneralHelper.LOGGER.error(Serializer.MARKER, str)))
                     .orElseThrow(() -> new JsonParseException(
                             "The following replacement stack has been deserialized incorrectly."));
-            return new ReplaceLootModifier(ailootcondition, target, replacement);
+            return new ReplaceLootModifier(conditions, LootScope.read(object), target, replacement);
         }
 
-        @Override
-        public JsonObject write(final ReplaceLootModifier instance) {
-            final JsonObject json = this.makeConditions(instance.conditions);
+        /**
+         * Writes the scope, target, and replacement of a modifier.
+         *
+         * @param  json     The JSON holding the conditions of the modifier
+         * @param  instance The modifier
+         * @return          The JSON of the modifier
+         */
+        static JsonObject writeModifier(final JsonObject json, final ReplaceLootModifier instance) {
+            instance.scope.write(json);
             json.addProperty("target", instance.target.getRegistryName().toString());
             ItemStack.CODEC.encodeStart(JsonOps.INSTANCE, instance.replacement)
                     .resultOrPartial(
@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.loot;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import javax.annotation.Nonnull;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.loot.LootConditionManager;
+import net.minecraft.loot.LootContext;
+import net.minecraft.loot.conditions.ILootCondition;
+import net.minecraftforge.common.loot.IGlobalLootModifier;
+
+/**
+ * A loot modifier limited to a {@link LootScope}. Unlike
+ * {@link net.minecraftforge.common.loot.LootModifier}, the conditions are only
+ * evaluated once the loot is known to be within scope and
+ * {@link #isApplicable(List)} has passed, so random conditions are not rolled
+ * for loot the modifier would leave unchanged anyway.
+ */
+public abstract class ScopedLootModifier implements IGlobalLootModifier {
+
+    protected final ILootCondition[] conditions;
+    protected final LootScope scope;
+    private final Predicate<LootContext> combinedConditions;
+
+    protected ScopedLootModifier(final ILootCondition[] conditionsIn, final LootScope scope) {
+        this.conditions = conditionsIn;
+        this.scope = scope;
+        this.combinedConditions = LootConditionManager.and(conditionsIn);
+    }
+
+    @Nonnull
+    @Override
+    public final List<ItemStack> apply(final List<ItemStack> generatedLoot, final LootContext context) {
+        return this.scope.test(context) && this.isApplicable(generatedLoot) && this.test(context)
+                ? this.doApply(generatedLoot, context)
+                : generatedLoot;
+    }
+
+    /**
+     * Checks whether the modifier could change the loot. Should be cheap as it is
+     * called before the conditions are evaluated.
+     *
+     * @param  generatedLoot The loot generated so far
+     * @return               True if the modifier could change the loot, false
+     *                       otherwise
+     */
+    protected boolean isApplicable(final List<ItemStack> generatedLoot) {
+        return true;
+    }
+
+    /**
+     * Checks whether the conditions of the modifier pass.
+     *
+     * @param  context The loot context
+     * @return         True if the modifier should be applied, false otherwise
+     */
+    boolean test(final LootContext context) {
+        return this.combinedConditions.test(context);
+    }
+
+    /**
+     * Applies the modifier once all checks have passed.
+     *
+     * @param  generatedLoot The loot generated so far
+     * @param  context       The loot context
+     * @return               The modified loot
+     */
+    @Nonnull
+    protected abstract List<ItemStack> doApply(List<ItemStack> generatedLoot, LootContext context);
+
+    public LootScope getScope() { return this.scope; }
+}
@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.network;
+
+import java.util.Optional;
+
+import io.github.forgecommunitywiki.examplemod.ExampleMod;
+import io.github.forgecommunitywiki.examplemod.capability.NoteStore;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.network.NetworkDirection;
+import net.minecraftforge.fml.network.NetworkRegistry;
+import net.minecraftforge.fml.network.simple.SimpleChannel;
+
+/**
+ * Handles the network channel and all messages sent across it.
+ */
+public final class NetworkHandler {
+
+    /**
+     * The protocol version of the channel. Should be changed whenever a message is
+     * added, removed, or its format changes. Compact notes change the block
+     * states of the mod, so they must also match between the client and server.
+     */
+    private static final String PROTOCOL_VERSION = NoteStore.ENABLED ? "4-compact" : "4";
+
+    /**
+     * The channel used to send messages between the client and server.
+     */
+    public static final SimpleChannel CHANNEL = NetworkRegistry.newSimpleChannel(
+            new ResourceLocation(ExampleMod.ID, "main"), () -> NetworkHandler.PROTOCOL_VERSION,
+            NetworkHandler.PROTOCOL_VERSION::equals, NetworkHandler.PROTOCOL_VERSION::equals);
+
+    /**
+     * Registers all messages to the channel.
+     */
+    public static void register() {
+        int id = 0;
+        NetworkHandler.CHANNEL.registerMessage(id++, SyncInstrumentSoundsMessage.class,
+                SyncInstrumentSoundsMessage::encode, SyncInstrumentSoundsMessage::decode,
+                SyncInstrumentSoundsMessage::handle, Optional.of(NetworkDirection.PLAY_TO_CLIENT));
+        NetworkHandler.CHANNEL.registerMessage(id++, NoteEventsMessage.class, NoteEventsMessage::encode,
+                NoteEventsMessage::decode, NoteEventsMessage::handle, Optional.of(NetworkDirection.PLAY_TO_CLIENT));
+        NetworkHandler.CHANNEL.registerMessage(id++, ChunkNotesMessage.class, ChunkNotesMessage::encode,
+                ChunkNotesMessage::decode, ChunkNotesMessage::handle, Optional.of(NetworkDirection.PLAY_TO_CLIENT));
+        NetworkHandler.CHANNEL.registerMessage(id++, SetNoteMessage.class, SetNoteMessage::encode,
+                SetNoteMessage::decode, SetNoteMessage::handle, Optional.of(NetworkDirection.PLAY_TO_CLIENT));
+        NetworkHandler.CHANNEL.registerMessage(id++, TuneNoteMessage.class, TuneNoteMessage::encode,
+                TuneNoteMessage::decode, TuneNoteMessage::handle, Optional.of(NetworkDirection.PLAY_TO_CLIENT));
+    }
+}
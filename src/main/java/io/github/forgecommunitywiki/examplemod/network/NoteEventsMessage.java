@@ -0,0 +1,86 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.network;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import io.github.forgecommunitywiki.examplemod.client.ClientHandler;
+import io.github.forgecommunitywiki.examplemod.sound.NoteEvent;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.fml.DistExecutor;
+import net.minecraftforge.fml.network.NetworkEvent;
+
+/**
+ * A message holding every note played near a player within a single tick.
+ */
+public class NoteEventsMessage {
+
+    /**
+     * The notes played in order.
+     */
+    private final List<NoteEvent> events;
+
+    public NoteEventsMessage(final List<NoteEvent> events) {
+        this.events = events;
+    }
+
+    /**
+     * Writes the message to the buffer.
+     *
+     * @param buffer The buffer to write to
+     */
+    public void encode(final PacketBuffer buffer) {
+        buffer.writeVarInt(this.events.size());
+        this.events.forEach(event -> event.encode(buffer));
+    }
+
+    /**
+     * Reads the message from the buffer.
+     *
+     * @param  buffer The buffer to read from
+     * @return        The decoded message
+     */
+    public static NoteEventsMessage decode(final PacketBuffer buffer) {
+        final int size = buffer.readVarInt();
+        final List<NoteEvent> events = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            events.add(NoteEvent.decode(buffer));
+        return new NoteEventsMessage(events);
+    }
+
+    /**
+     * Replays the notes on the client.
+     *
+     * @param ctx The network context
+     */
+    public void handle(final Supplier<NetworkEvent.Context> ctx) {
+        ctx.get().enqueueWork(() -> DistExecutor.unsafeRunWhenOn(Dist.CLIENT,
+                () -> () -> ClientHandler.getInstance().playNoteEvents(this.events)));
+        ctx.get().setPacketHandled(true);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.network;
+
+import java.util.function.Supplier;
+
+import io.github.forgecommunitywiki.examplemod.block.RotatedInstrumentBlock;
+import io.github.forgecommunitywiki.examplemod.client.ClientHandler;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.fml.DistExecutor;
+import net.minecraftforge.fml.network.NetworkEvent;
+
+/**
+ * A message holding the note of a single instrument, sent when the note
+ * changes on the server.
+ */
+public class SetNoteMessage {
+
+    private final BlockPos pos;
+    private final int note;
+
+    public SetNoteMessage(final BlockPos pos, final int note) {
+        this.pos = pos;
+        this.note = note;
+    }
+
+    /**
+     * Writes the message to the buffer.
+     *
+     * @param buffer The buffer to write to
+     */
+    public void encode(final PacketBuffer buffer) {
+        buffer.writeBlockPos(this.pos);
+        buffer.writeByte(this.note);
+    }
+
+    /**
+     * Reads the message from the buffer.
+     *
+     * @param  buffer The buffer to read from
+     * @return        The decoded message
+     */
+    public static SetNoteMessage decode(final PacketBuffer buffer) {
+        return new SetNoteMessage(buffer.readBlockPos(),
+                Math.min(buffer.readUnsignedByte(), RotatedInstrumentBlock.MAX_NOTE));
+    }
+
+    /**
+     * Sets the note of the instrument on the client.
+     *
+     * @param ctx The network context
+     */
+    public void handle(final Supplier<NetworkEvent.Context> ctx) {
+        ctx.get().enqueueWork(() -> DistExecutor.unsafeRunWhenOn(Dist.CLIENT,
+                () -> () -> ClientHandler.getInstance().setNote(this.pos, this.note)));
+        ctx.get().setPacketHandled(true);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.network;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+import io.github.forgecommunitywiki.examplemod.item.InstrumentItem;
+import io.github.forgecommunitywiki.examplemod.sound.*;
+import net.minecraft.item.Item;
+import net.minecraft.network.PacketBuffer;
+import net.minecraftforge.fml.network.NetworkEvent;
+import net.minecraftforge.registries.ForgeRegistries;
+
+/**
+ * A message used to send the instrument sound rules loaded from the server's
+ * data packs to the client, allowing the client to predict the sound played
+ * when hitting a block. The rules are compiled using the client's tags.
+ */
+public class SyncInstrumentSoundsMessage {
+
+    /**
+     * The instrument sound rules in load order.
+     */
+    private final Map<InstrumentItem, List<InstrumentSoundRule>> rules;
+
+    public SyncInstrumentSoundsMessage(final InstrumentSoundTable table) {
+        this(table.getRules());
+    }
+
+    private SyncInstrumentSoundsMessage(final Map<InstrumentItem, List<InstrumentSoundRule>> rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Writes the message to the buffer.
+     *
+     * @param buffer The buffer to write to
+     */
+    public void encode(final PacketBuffer buffer) {
+        buffer.writeVarInt(this.rules.size());
+        this.rules.forEach((instrument, instrumentRules) -> {
+            buffer.writeRegistryIdUnsafe(ForgeRegistries.ITEMS, instrument);
+            buffer.writeVarInt(instrumentRules.size());
+            instrumentRules.forEach(rule -> {
+                buffer.writeBoolean(rule.getBlock() != null);
+                if (rule.getBlock() != null)
+                    buffer.writeRegistryIdUnsafe(ForgeRegistries.BLOCKS, rule.getBlock());
+                else
+                    buffer.writeResourceLocation(rule.getTag());
+                buffer.writeRegistryIdUnsafe(ForgeRegistries.SOUND_EVENTS, rule.getSound());
+                buffer.writeVarInt(rule.getPriority());
+            });
+        });
+    }
+
+    /**
+     * Reads the message from the buffer.
+     *
+     * @param  buffer The buffer to read from
+     * @return        The decoded message
+     */
+    public static SyncInstrumentSoundsMessage decode(final PacketBuffer buffer) {
+        final Map<InstrumentItem, List<InstrumentSoundRule>> rules = new HashMap<>();
+        for (int instruments = buffer.readVarInt(); instruments > 0; instruments--) {
+            final Item item = buffer.readRegistryIdUnsafe(ForgeRegistries.ITEMS);
+            final List<InstrumentSoundRule> instrumentRules = new ArrayList<>();
+            for (int entries = buffer.readVarInt(); entries > 0; entries--)
+                if (buffer.readBoolean())
+                    instrumentRules.add(InstrumentSoundRule.block(buffer.readRegistryIdUnsafe(ForgeRegistries.BLOCKS),
+                            buffer.readRegistryIdUnsafe(ForgeRegistries.SOUND_EVENTS), buffer.readVarInt()));
+                else
+                    instrumentRules.add(InstrumentSoundRule.tag(buffer.readResourceLocation(),
+                            buffer.readRegistryIdUnsafe(ForgeRegistries.SOUND_EVENTS), buffer.readVarInt()));
+            if (item instanceof InstrumentItem)
+                rules.put((InstrumentItem) item, instrumentRules);
+        }
+        return new SyncInstrumentSoundsMessage(rules);
+    }
+
+    /**
+     * Publishes the instrument sounds on the client. Skipped on an integrated
+     * server as both sides already share the same table.
+     *
+     * @param ctx The network context
+     */
+    public void handle(final Supplier<NetworkEvent.Context> ctx) {
+        if (!ctx.get().getNetworkManager().isLocalChannel())
+            ctx.get().enqueueWork(() -> InstrumentSoundManager.publish(InstrumentSoundTable.compile(this.rules)));
+        ctx.get().setPacketHandled(true);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.network;
+
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+import io.github.forgecommunitywiki.examplemod.block.RotatedInstrumentBlock;
+import io.github.forgecommunitywiki.examplemod.client.ClientHandler;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.fml.DistExecutor;
+import net.minecraftforge.fml.network.NetworkEvent;
+import net.minecraftforge.registries.ForgeRegistries;
+import net.minecraftforge.registries.ForgeRegistry;
+
+/**
+ * A message sent when an instrument is tuned, which sets its note on the
+ * client and optionally plays the tuned note. This replaces the block update,
+ * sound, and particle that would otherwise be sent separately.
+ *
+ * <p>
+ * The message is packed into varints: the zigzag encoded x and z coordinates,
+ * the zigzag encoded y coordinate shifted left by five bits holding the note,
+ * and the raw id of the sound plus one, with zero representing no sound.
+ * Within eight thousand blocks of the origin, a message takes at most nine
+ * bytes.
+ */
+public class TuneNoteMessage {
+
+    /**
+     * The number of bits the note takes within the packed y coordinate.
+     */
+    private static final int NOTE_BITS = 5;
+
+    private final BlockPos pos;
+    private final int note;
+    @Nullable
+    private final SoundEvent sound;
+
+    /**
+     * Creates a tune message.
+     *
+     * @param pos   The position of the instrument
+     * @param note  The new note between 0 and 24
+     * @param sound The sound to play, or null to only set the note
+     */
+    public TuneNoteMessage(final BlockPos pos, final int note, @Nullable final SoundEvent sound) {
+        this.pos = pos.toImmutable();
+        this.note = note;
+        this.sound = sound;
+    }
+
+    /**
+     * Writes the message to the buffer.
+     *
+     * @param buffer The buffer to write to
+     */
+    public void encode(final PacketBuffer buffer) {
+        buffer.writeVarInt(TuneNoteMessage.zigzag(this.pos.getX()));
+        buffer.writeVarInt(TuneNoteMessage.zigzag(this.pos.getZ()));
+        buffer.writeVarInt(TuneNoteMessage.zigzag(this.pos.getY()) << TuneNoteMessage.NOTE_BITS | this.note);
+        buffer.writeVarInt(this.sound != null
+                ? ((ForgeRegistry<SoundEvent>) ForgeRegistries.SOUND_EVENTS).getID(this.sound) + 1
+                : 0);
+    }
+
+    /**
+     * Reads the message from the buffer.
+     *
+     * @param  buffer The buffer to read from
+     * @return        The decoded message
+     */
+    public static TuneNoteMessage decode(final PacketBuffer buffer) {
+        final int x = TuneNoteMessage.unzigzag(buffer.readVarInt());
+        final int z = TuneNoteMessage.unzigzag(buffer.readVarInt());
+        final int packed = buffer.readVarInt();
+        final int sound = buffer.readVarInt();
+        return new TuneNoteMessage(
+                new BlockPos(x, TuneNoteMessage.unzigzag(packed >>> TuneNoteMessage.NOTE_BITS), z),
+                Math.min(packed & (1 << TuneNoteMessage.NOTE_BITS) - 1, RotatedInstrumentBlock.MAX_NOTE),
+                sound != 0 ? ((ForgeRegistry<SoundEvent>) ForgeRegistries.SOUND_EVENTS).getValue(sound - 1) : null);
+    }
+
+    /**
+     * Encodes a signed value such that values close to zero take the fewest
+     * bytes as a varint.
+     */
+    private static int zigzag(final int value) {
+        return value << 1 ^ value >> 31;
+    }
+
+    private static int unzigzag(final int value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    /**
+     * Tunes the instrument on the client.
+     *
+     * @param ctx The network context
+     */
+    public void handle(final Supplier<NetworkEvent.Context> ctx) {
+        ctx.get().enqueueWork(() -> DistExecutor.unsafeRunWhenOn(Dist.CLIENT,
+                () -> () -> ClientHandler.getInstance().tuneNote(this.pos, this.note, this.sound)));
+        ctx.get().setPacketHandled(true);
+    }
+}
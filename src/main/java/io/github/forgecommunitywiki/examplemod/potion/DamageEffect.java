@@ -1,5 +1,7 @@
 package io.github.forgecommunitywiki.examplemod.potion;
 
+import io.github.forgecommunitywiki.examplemod.profiling.FlightEvents;
+import io.github.forgecommunitywiki.examplemod.util.Metrics;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.potion.*;
@@ -42,9 +44,26 @@ public class DamageEffect extends Effect {
         this.shouldRender = shouldRender;
     }
 
+    /**
+     * Gets the amount of time between each trigger of the effect.
+     *
+     * @param  amplifier The amplifier of the effect
+     * @return           The number of ticks between triggers, or zero or less if
+     *                   the effect triggers every tick
+     */
+    public int getInterval(final int amplifier) {
+        return this.baseTime >> amplifier;
+    }
+
+    public DamageSource getSource() { return this.source; }
+
     @Override
     public void performEffect(final LivingEntity entityLivingBaseIn, final int amplifier) {
+        final long start = Metrics.DAMAGE_EFFECT_PERFORM.start();
+        final Object event = FlightEvents.beginDamageEffect();
         entityLivingBaseIn.attackEntityFrom(this.source, 1.0f);
+        Metrics.DAMAGE_EFFECT_PERFORM.stop(start);
+        FlightEvents.commitDamageEffect(event, this, entityLivingBaseIn, 1.0f, false);
     }
 
     /**
@@ -58,9 +77,16 @@ public class DamageEffect extends Effect {
         this.performEffect(entityLivingBaseIn, amplifier);
     }
 
+    /**
+     * Triggers the effect on each of its intervals. When the
+     * {@link DamageOverTimeScheduler} is enabled, the effect never triggers by
+     * itself as the scheduler applies its damage instead.
+     */
     @Override
     public boolean isReady(final int duration, final int amplifier) {
-        final int time = this.baseTime >> amplifier;
+        if (DamageOverTimeScheduler.isEnabled())
+            return false;
+        final int time = this.getInterval(amplifier);
         return time <= 0 || duration % time == 0;
     }
 
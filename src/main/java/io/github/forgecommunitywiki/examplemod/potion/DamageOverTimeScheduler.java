@@ -0,0 +1,261 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.potion;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.github.forgecommunitywiki.examplemod.config.ServerConfig;
+import io.github.forgecommunitywiki.examplemod.profiling.FlightEvents;
+import io.github.forgecommunitywiki.examplemod.util.Metrics;
+import io.github.forgecommunitywiki.examplemod.util.TimingWheel;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.potion.Effect;
+import net.minecraft.potion.EffectInstance;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.world.World;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.EntityJoinWorldEvent;
+import net.minecraftforge.event.entity.living.PotionEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.config.ModConfig;
+
+/**
+ * Applies the damage of every {@link DamageEffect} within a world from a
+ * single {@link TimingWheel} rather than polling each entity every tick.
+ * Afflicted entities accumulate fractional damage between their hits and
+ * take it in a single hit every
+ * {@link ServerConfig#damageOverTimeGranularity} ticks, or on each trigger of
+ * the effect if it triggers less often. This trades the precise timing of
+ * each hit for far fewer hurt events and packets.
+ */
+public final class DamageOverTimeScheduler {
+
+    /**
+     * The number of slots in each wheel. Covers a little over twelve seconds
+     * before a timer needs to wait more than one rotation.
+     */
+    private static final int SLOTS = 256;
+    private static final Map<RegistryKey<World>, Afflictions> WORLDS = new HashMap<>();
+
+    /**
+     * The number of ticks to accumulate damage over, or zero if each effect
+     * damages on its own triggers.
+     */
+    private static volatile int granularity;
+
+    /**
+     * Checks whether damage over time effects are applied by the scheduler.
+     *
+     * @return True if the scheduler is enabled, false otherwise
+     */
+    public static boolean isEnabled() {
+        return DamageOverTimeScheduler.granularity > 0;
+    }
+
+    /**
+     * Updates the granularity when the server configuration is loaded or
+     * reloaded.
+     *
+     * @param event The mod config event
+     */
+    public static void onConfigChanged(final ModConfig.ModConfigEvent event) {
+        if (event.getConfig().getSpec() == ServerConfig.SPEC)
+            DamageOverTimeScheduler.granularity = ServerConfig.INSTANCE.damageOverTimeGranularity.get();
+    }
+
+    /**
+     * Schedules an entity when a damage over time effect is applied to it.
+     *
+     * @param event The potion added event
+     */
+    public static void onPotionAdded(final PotionEvent.PotionAddedEvent event) {
+        final LivingEntity entity = event.getEntityLiving();
+        if (entity.world instanceof ServerWorld)
+            DamageOverTimeScheduler.schedule((ServerWorld) entity.world, entity, event.getPotionEffect());
+    }
+
+    /**
+     * Schedules an entity that joins the world with damage over time effects,
+     * such as when its chunk is loaded or it changes dimension.
+     *
+     * @param event The entity join world event
+     */
+    public static void onEntityJoinWorld(final EntityJoinWorldEvent event) {
+        if (!(event.getEntity() instanceof LivingEntity) || !(event.getWorld() instanceof ServerWorld))
+            return;
+        final LivingEntity entity = (LivingEntity) event.getEntity();
+        for (final EffectInstance instance : entity.getActivePotionEffects())
+            DamageOverTimeScheduler.schedule((ServerWorld) event.getWorld(), entity, instance);
+    }
+
+    /**
+     * Schedules the entity to take damage from the effect, if not already
+     * scheduled.
+     *
+     * @param world    The world the entity is in
+     * @param entity   The afflicted entity
+     * @param instance The instance of the effect
+     */
+    private static void schedule(final ServerWorld world, final LivingEntity entity,
+            final EffectInstance instance) {
+        if (!DamageOverTimeScheduler.isEnabled() || !(instance.getPotion() instanceof DamageEffect))
+            return;
+        final DamageEffect effect = (DamageEffect) instance.getPotion();
+        final long key = (long) entity.getEntityId() << 32 | Effect.getId(effect) & 0xFFFFFFFFL;
+        final Afflictions afflictions = DamageOverTimeScheduler.WORLDS.computeIfAbsent(world.getDimensionKey(),
+                k -> new Afflictions());
+        final Affliction existing = afflictions.byKey.get(key);
+        if (existing != null && existing.entity == entity)
+            return;
+
+        final long now = world.getGameTime();
+        final Affliction affliction = new Affliction(key, entity, effect, now);
+        afflictions.byKey.put(key, affliction);
+        afflictions.wheel.schedule(DamageOverTimeScheduler.getNextHit(now, effect, instance), affliction);
+    }
+
+    /**
+     * Applies the damage of the afflictions scheduled on the current game time.
+     *
+     * @param event The world tick event
+     */
+    public static void onWorldTick(final TickEvent.WorldTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || !(event.world instanceof ServerWorld))
+            return;
+        final Afflictions afflictions = DamageOverTimeScheduler.WORLDS.get(event.world.getDimensionKey());
+        if (afflictions != null) {
+            final long now = event.world.getGameTime();
+            afflictions.wheel.advance(now,
+                    affliction -> DamageOverTimeScheduler.hit(event.world, afflictions, affliction, now));
+        }
+    }
+
+    /**
+     * Applies the damage accumulated by the affliction since its last hit and
+     * schedules its next hit. The affliction is discarded once the entity is no
+     * longer alive, no longer has the effect, or is no longer ticked by the
+     * world, such as when its chunk is unloaded or it changes dimension. The
+     * entity is scheduled again if it rejoins a world.
+     *
+     * @param world       The world of the afflictions
+     * @param afflictions The afflictions of the world
+     * @param affliction  The affliction to apply
+     * @param now         The current game time
+     */
+    private static void hit(final World world, final Afflictions afflictions, final Affliction affliction,
+            final long now) {
+        final LivingEntity entity = affliction.entity;
+        final boolean ticked = entity.isAlive() && entity.world == world && entity.isAddedToWorld();
+        final EffectInstance instance = DamageOverTimeScheduler.isEnabled() && ticked
+                ? entity.getActivePotionEffect(affliction.effect)
+                : null;
+        if (instance == null) {
+            afflictions.byKey.remove(affliction.key, affliction);
+            return;
+        }
+
+        final int interval = affliction.effect.getInterval(instance.getAmplifier());
+        final long elapsed = now - affliction.lastHit;
+        affliction.lastHit = now;
+        affliction.damage += interval <= 0 ? elapsed : (float) elapsed / interval;
+        if (affliction.damage >= 1.0f) {
+            final float damage = (float) Math.floor(affliction.damage);
+            affliction.damage -= damage;
+            final long start = Metrics.DAMAGE_EFFECT_PERFORM.start();
+            final Object event = FlightEvents.beginDamageEffect();
+            entity.attackEntityFrom(affliction.effect.getSource(), damage);
+            Metrics.DAMAGE_EFFECT_PERFORM.stop(start);
+            FlightEvents.commitDamageEffect(event, affliction.effect, entity, damage, true);
+        }
+
+        if (entity.isAlive())
+            afflictions.wheel.schedule(DamageOverTimeScheduler.getNextHit(now, affliction.effect, instance),
+                    affliction);
+        else
+            afflictions.byKey.remove(affliction.key, affliction);
+    }
+
+    /**
+     * Gets the game time of the next hit of an effect. The hit happens after the
+     * granularity or the interval of the effect, whichever is longer, but no
+     * later than the last tick the effect is active on.
+     *
+     * @param  now      The current game time
+     * @param  effect   The effect
+     * @param  instance The instance of the effect
+     * @return          The game time of the next hit
+     */
+    private static long getNextHit(final long now, final DamageEffect effect, final EffectInstance instance) {
+        final int step = Math.max(DamageOverTimeScheduler.granularity,
+                effect.getInterval(instance.getAmplifier()));
+        return now + Math.max(1, Math.min(step, instance.getDuration() - 1));
+    }
+
+    /**
+     * Removes the afflictions of the world when it is unloaded.
+     *
+     * @param event The world unload event
+     */
+    public static void onWorldUnload(final WorldEvent.Unload event) {
+        if (event.getWorld() instanceof ServerWorld)
+            DamageOverTimeScheduler.WORLDS.remove(((ServerWorld) event.getWorld()).getDimensionKey());
+    }
+
+    /**
+     * The scheduled afflictions of a world, keyed by the entity id and the effect
+     * id.
+     */
+    private static final class Afflictions {
+
+        private final TimingWheel<Affliction> wheel = new TimingWheel<>(DamageOverTimeScheduler.SLOTS);
+        private final Long2ObjectOpenHashMap<Affliction> byKey = new Long2ObjectOpenHashMap<>();
+    }
+
+    /**
+     * A damage over time effect applied to an entity.
+     */
+    private static final class Affliction {
+
+        private final long key;
+        private final LivingEntity entity;
+        private final DamageEffect effect;
+        private long lastHit;
+        /**
+         * The damage accumulated since the last hit which has not been applied
+         * yet.
+         */
+        private float damage;
+
+        private Affliction(final long key, final LivingEntity entity, final DamageEffect effect, final long lastHit) {
+            this.key = key;
+            this.entity = entity;
+            this.effect = effect;
+            this.lastHit = lastHit;
+        }
+    }
+}
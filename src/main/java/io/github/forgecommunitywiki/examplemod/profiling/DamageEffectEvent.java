@@ -0,0 +1,51 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.forgecommunitywiki.examplemod.profiling;
+
+import jdk.jfr.*;
+
+/**
+ * Recorded when a damage over time effect damages an entity.
+ */
+@Name(DamageEffectEvent.NAME)
+@Label("Damage Effect Tick")
+@Category({ "Example Mod", "Effects" })
+@Description("A damage over time effect damaging an entity")
+@StackTrace(false)
+@Threshold("1 ms")
+final class DamageEffectEvent extends Event {
+
+    static final String NAME = "examplemod.DamageEffect";
+
+    @Label("Effect")
+    String effect;
+    @Label("Entity")
+    @Description("The type of the entity damaged")
+    String entity;
+    @Label("Damage")
+    float damage;
+    @Label("Scheduled")
+    @Description("Whether the damage was accumulated by the damage over time scheduler")
+    boolean scheduled;
+}
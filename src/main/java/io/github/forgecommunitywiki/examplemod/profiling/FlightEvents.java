@@ -0,0 +1,217 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.forgecommunitywiki.examplemod.profiling;
+
+import javax.annotation.Nullable;
+
+import io.github.forgecommunitywiki.examplemod.util.GeneralHelper;
+import jdk.jfr.FlightRecorder;
+import net.minecraft.block.Block;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.item.ItemStack;
+import net.minecraft.loot.LootContext;
+import net.minecraft.potion.Effect;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Emits the custom Java Flight Recorder events of the mod, so the time spent on
+ * instrument hits, loot modifiers, and damage effects shows up alongside the
+ * garbage collection and tick data of a recording.
+ *
+ * <p>
+ * Events are only recorded above their threshold, which defaults to one
+ * millisecond, and without stack traces. Both can be changed per event in the
+ * settings of a recording, such as
+ * {@code -XX:StartFlightRecording:examplemod.InstrumentHit#threshold=0ms}, or in
+ * a custom {@code .jfc} file.
+ *
+ * <p>
+ * The flight recorder is not part of every Java 8 runtime. The event classes
+ * are only ever loaded once the recorder is known to be available, and each
+ * event is passed around as an opaque handle so callers never reference them.
+ * A handle is null whenever the event is not being recorded, so committing it
+ * costs a single check.
+ */
+public final class FlightEvents {
+
+    /**
+     * Whether the flight recorder is available within this runtime.
+     */
+    public static final boolean AVAILABLE = FlightEvents.isAvailable();
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.FlightRecorder", false, FlightEvents.class.getClassLoader());
+            return FlightRecorder.isAvailable();
+        } catch (final ClassNotFoundException | LinkageError e) {
+            GeneralHelper.LOGGER.debug("The flight recorder is not available, no events will be recorded");
+            return false;
+        }
+    }
+
+    /**
+     * Begins an instrument hit.
+     *
+     * @return The handle of the event, or null if it is not being recorded
+     */
+    @Nullable
+    public static Object beginInstrumentHit() {
+        if (!FlightEvents.AVAILABLE)
+            return null;
+        final InstrumentHitEvent event = new InstrumentHitEvent();
+        if (!event.isEnabled())
+            return null;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Sets the sound played by an instrument hit. Hits without a sound, such as
+     * those dropped by the rate limit or passed on to the block, are recorded
+     * with an empty sound.
+     *
+     * @param handle The handle of the event, or null if it is not being recorded
+     * @param sound  The sound played
+     */
+    public static void setInstrumentHitSound(@Nullable final Object handle, final SoundEvent sound) {
+        if (handle != null)
+            ((InstrumentHitEvent) handle).sound = String.valueOf(sound.getRegistryName());
+    }
+
+    /**
+     * Ends an instrument hit and commits it if it took longer than the threshold.
+     *
+     * @param handle     The handle of the event, or null if it is not being
+     *                   recorded
+     * @param pos        The position of the hit block
+     * @param instrument The hit block
+     * @param stack      The stack the block was hit with
+     */
+    public static void commitInstrumentHit(@Nullable final Object handle, final BlockPos pos, final Block instrument,
+            final ItemStack stack) {
+        if (handle == null)
+            return;
+        final InstrumentHitEvent event = (InstrumentHitEvent) handle;
+        event.end();
+        if (!event.shouldCommit())
+            return;
+        event.x = pos.getX();
+        event.y = pos.getY();
+        event.z = pos.getZ();
+        event.instrument = String.valueOf(instrument.getRegistryName());
+        event.item = String.valueOf(stack.getItem().getRegistryName());
+        if (event.sound == null)
+            event.sound = "";
+        event.commit();
+    }
+
+    /**
+     * Begins a loot modifier application.
+     *
+     * @return The handle of the event, or null if it is not being recorded
+     */
+    @Nullable
+    public static Object beginLootModifier() {
+        if (!FlightEvents.AVAILABLE)
+            return null;
+        final LootModifierEvent event = new LootModifierEvent();
+        if (!event.isEnabled())
+            return null;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends a loot modifier application and commits it if it took longer than the
+     * threshold.
+     *
+     * @param handle       The handle of the event, or null if it is not being
+     *                     recorded
+     * @param modifier     The registry name of the serializer of the modifier
+     * @param context      The loot context
+     * @param stacksIn     The number of stacks before applying the modifier
+     * @param stacksOut    The number of stacks after applying the modifier
+     * @param replacements The number of stacks replaced
+     */
+    public static void commitLootModifier(@Nullable final Object handle, final ResourceLocation modifier,
+            final LootContext context, final int stacksIn, final int stacksOut, final int replacements) {
+        if (handle == null)
+            return;
+        final LootModifierEvent event = (LootModifierEvent) handle;
+        event.end();
+        if (!event.shouldCommit())
+            return;
+        event.modifier = modifier.toString();
+        event.table = String.valueOf(context.getQueriedLootTableId());
+        event.stacksIn = stacksIn;
+        event.stacksOut = stacksOut;
+        event.replacements = replacements;
+        event.commit();
+    }
+
+    /**
+     * Begins a damage effect tick.
+     *
+     * @return The handle of the event, or null if it is not being recorded
+     */
+    @Nullable
+    public static Object beginDamageEffect() {
+        if (!FlightEvents.AVAILABLE)
+            return null;
+        final DamageEffectEvent event = new DamageEffectEvent();
+        if (!event.isEnabled())
+            return null;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends a damage effect tick and commits it if it took longer than the
+     * threshold.
+     *
+     * @param handle    The handle of the event, or null if it is not being
+     *                  recorded
+     * @param effect    The effect dealing the damage
+     * @param entity    The entity damaged
+     * @param damage    The damage dealt
+     * @param scheduled Whether the damage was accumulated by the
+     *                  {@link io.github.forgecommunitywiki.examplemod.potion.DamageOverTimeScheduler}
+     */
+    public static void commitDamageEffect(@Nullable final Object handle, final Effect effect,
+            final LivingEntity entity, final float damage, final boolean scheduled) {
+        if (handle == null)
+            return;
+        final DamageEffectEvent event = (DamageEffectEvent) handle;
+        event.end();
+        if (!event.shouldCommit())
+            return;
+        event.effect = String.valueOf(effect.getRegistryName());
+        event.entity = String.valueOf(entity.getType().getRegistryName());
+        event.damage = damage;
+        event.scheduled = scheduled;
+        event.commit();
+    }
+}
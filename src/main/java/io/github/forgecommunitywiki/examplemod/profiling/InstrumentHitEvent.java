@@ -0,0 +1,57 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.forgecommunitywiki.examplemod.profiling;
+
+import jdk.jfr.*;
+
+/**
+ * Recorded when a player hits an instrument, covering everything done on the
+ * server for the hit.
+ */
+@Name(InstrumentHitEvent.NAME)
+@Label("Instrument Hit")
+@Category({ "Example Mod", "Instruments" })
+@Description("A player hitting an instrument")
+@StackTrace(false)
+@Threshold("1 ms")
+final class InstrumentHitEvent extends Event {
+
+    static final String NAME = "examplemod.InstrumentHit";
+
+    @Label("X")
+    int x;
+    @Label("Y")
+    int y;
+    @Label("Z")
+    int z;
+    @Label("Instrument")
+    @Description("The block that was hit")
+    String instrument;
+    @Label("Item")
+    @Description("The item the block was hit with")
+    String item;
+    @Label("Sound")
+    @Description("The sound played, or empty if the hit did not play a sound")
+    String sound;
+}
@@ -0,0 +1,54 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.forgecommunitywiki.examplemod.profiling;
+
+import jdk.jfr.*;
+
+/**
+ * Recorded when a loot modifier of the mod changes the loot of a table.
+ */
+@Name(LootModifierEvent.NAME)
+@Label("Loot Modifier Application")
+@Category({ "Example Mod", "Loot" })
+@Description("A loot modifier applied to the loot of a table")
+@StackTrace(false)
+@Threshold("1 ms")
+final class LootModifierEvent extends Event {
+
+    static final String NAME = "examplemod.LootModifier";
+
+    @Label("Modifier")
+    @Description("The serializer of the modifier")
+    String modifier;
+    @Label("Loot Table")
+    @Description("The loot table generating the loot")
+    String table;
+    @Label("Stacks In")
+    int stacksIn;
+    @Label("Stacks Out")
+    int stacksOut;
+    @Label("Replacements")
+    @Description("The number of stacks replaced")
+    int replacements;
+}
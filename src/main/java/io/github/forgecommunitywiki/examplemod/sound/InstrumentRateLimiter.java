@@ -0,0 +1,262 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.sound;
+
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+
+import io.github.forgecommunitywiki.examplemod.config.ServerConfig;
+import it.unimi.dsi.fastutil.HashCommon;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraftforge.common.util.FakePlayer;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.fml.config.ModConfig;
+import net.minecraftforge.fml.event.server.FMLServerStoppedEvent;
+
+/**
+ * Limits how often each player can hit an instrument on the server using a
+ * token bucket. Each player holds up to {@link ServerConfig#instrumentHitBurst}
+ * hits, refilled at {@link ServerConfig#instrumentHitRate} hits per second.
+ * Hits without a token are dropped silently before anything is played or
+ * changed in the world, and counted for operators.
+ *
+ * <p>
+ * The buckets are stored in parallel primitive arrays forming an open
+ * addressing table keyed by entity id, so checking a hit does not allocate.
+ * Players are removed when they log out. Fake players are never limited as
+ * they are driven by the server rather than a client.
+ */
+public final class InstrumentRateLimiter {
+
+    /**
+     * Represents a slot without a player.
+     */
+    private static final int EMPTY = Integer.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float TICKS_PER_SECOND = 20f;
+
+    private static int[] ids = InstrumentRateLimiter.emptyIds(InstrumentRateLimiter.INITIAL_CAPACITY);
+    private static float[] tokens = new float[InstrumentRateLimiter.INITIAL_CAPACITY];
+    /**
+     * The server tick each bucket was last refilled on.
+     */
+    private static long[] refilled = new long[InstrumentRateLimiter.INITIAL_CAPACITY];
+    private static int[] drops = new int[InstrumentRateLimiter.INITIAL_CAPACITY];
+    private static int size;
+    private static long totalDrops;
+
+    private static volatile int burst = 10;
+    private static volatile float refillPerTick = 8f / InstrumentRateLimiter.TICKS_PER_SECOND;
+
+    /**
+     * Updates the bucket sizes when the server configuration is loaded or
+     * reloaded.
+     *
+     * @param event The mod config event
+     */
+    public static void onConfigChanged(final ModConfig.ModConfigEvent event) {
+        if (event.getConfig().getSpec() != ServerConfig.SPEC)
+            return;
+        InstrumentRateLimiter.burst = ServerConfig.INSTANCE.instrumentHitBurst.get();
+        InstrumentRateLimiter.refillPerTick = ServerConfig.INSTANCE.instrumentHitRate.get().floatValue()
+                / InstrumentRateLimiter.TICKS_PER_SECOND;
+    }
+
+    /**
+     * Takes a token from the bucket of the player if one is available.
+     *
+     * @param  player The player hitting the instrument, or null if none
+     * @return        True if the hit should be played, false if it should be
+     *                dropped. Always true on the client or without a player.
+     */
+    public static boolean tryAcquire(@Nullable final PlayerEntity player) {
+        if (!(player instanceof ServerPlayerEntity) || player instanceof FakePlayer)
+            return true;
+        final long now = ((ServerPlayerEntity) player).server.getTickCounter();
+        final int burst = InstrumentRateLimiter.burst;
+
+        int slot = InstrumentRateLimiter.find(player.getEntityId());
+        if (slot < 0)
+            slot = InstrumentRateLimiter.insert(player.getEntityId(), burst, now);
+        final float available = Math.min(burst, InstrumentRateLimiter.tokens[slot]
+                + (now - InstrumentRateLimiter.refilled[slot]) * InstrumentRateLimiter.refillPerTick);
+        InstrumentRateLimiter.refilled[slot] = now;
+        if (available >= 1f) {
+            InstrumentRateLimiter.tokens[slot] = available - 1f;
+            return true;
+        }
+        InstrumentRateLimiter.tokens[slot] = available;
+        InstrumentRateLimiter.drops[slot]++;
+        InstrumentRateLimiter.totalDrops++;
+        return false;
+    }
+
+    /**
+     * Gets the number of hits of the player dropped since they logged in.
+     *
+     * @param  player The player
+     * @return        The number of dropped hits
+     */
+    public static int getDrops(final PlayerEntity player) {
+        final int slot = InstrumentRateLimiter.find(player.getEntityId());
+        return slot < 0 ? 0 : InstrumentRateLimiter.drops[slot];
+    }
+
+    /**
+     * Gets the number of hits dropped since the server started.
+     *
+     * @return The number of dropped hits
+     */
+    public static long getTotalDrops() { return InstrumentRateLimiter.totalDrops; }
+
+    /**
+     * Removes the bucket of a player when they log out.
+     *
+     * @param event The player logged out event
+     */
+    public static void onPlayerLoggedOut(final PlayerEvent.PlayerLoggedOutEvent event) {
+        final int slot = InstrumentRateLimiter.find(event.getPlayer().getEntityId());
+        if (slot >= 0)
+            InstrumentRateLimiter.remove(slot);
+    }
+
+    /**
+     * Clears every bucket when the server stops.
+     *
+     * @param event The server stopped event
+     */
+    public static void onServerStopped(final FMLServerStoppedEvent event) {
+        InstrumentRateLimiter.allocate(InstrumentRateLimiter.INITIAL_CAPACITY);
+        InstrumentRateLimiter.totalDrops = 0L;
+    }
+
+    /**
+     * Gets the slot of the entity id.
+     *
+     * @param  id The entity id
+     * @return    The slot, or -1 if the id is not present
+     */
+    private static int find(final int id) {
+        final int mask = InstrumentRateLimiter.ids.length - 1;
+        for (int slot = HashCommon.mix(id) & mask;; slot = slot + 1 & mask) {
+            final int current = InstrumentRateLimiter.ids[slot];
+            if (current == id)
+                return slot;
+            if (current == InstrumentRateLimiter.EMPTY)
+                return -1;
+        }
+    }
+
+    /**
+     * Inserts a full bucket for an entity id that is not present, growing the
+     * table once it is half full.
+     *
+     * @param  id     The entity id
+     * @param  tokens The number of tokens in the bucket
+     * @param  now    The current server tick
+     * @return        The slot of the bucket
+     */
+    private static int insert(final int id, final float tokens, final long now) {
+        if (InstrumentRateLimiter.size + 1 > InstrumentRateLimiter.ids.length >> 1)
+            InstrumentRateLimiter.grow();
+        final int mask = InstrumentRateLimiter.ids.length - 1;
+        int slot = HashCommon.mix(id) & mask;
+        while (InstrumentRateLimiter.ids[slot] != InstrumentRateLimiter.EMPTY)
+            slot = slot + 1 & mask;
+        InstrumentRateLimiter.ids[slot] = id;
+        InstrumentRateLimiter.tokens[slot] = tokens;
+        InstrumentRateLimiter.refilled[slot] = now;
+        InstrumentRateLimiter.drops[slot] = 0;
+        InstrumentRateLimiter.size++;
+        return slot;
+    }
+
+    /**
+     * Removes the bucket within the slot, shifting back any following buckets
+     * which would no longer be reachable from their home slot.
+     *
+     * @param slot The slot to remove
+     */
+    private static void remove(final int slot) {
+        final int mask = InstrumentRateLimiter.ids.length - 1;
+        InstrumentRateLimiter.size--;
+        int hole = slot;
+        for (int next = hole + 1 & mask;; next = next + 1 & mask) {
+            final int id = InstrumentRateLimiter.ids[next];
+            if (id == InstrumentRateLimiter.EMPTY)
+                break;
+            final int home = HashCommon.mix(id) & mask;
+            // Move the bucket back if its home slot is not between the hole and itself
+            if (hole <= next ? hole >= home || home > next : hole >= home && home > next) {
+                InstrumentRateLimiter.move(next, hole);
+                hole = next;
+            }
+        }
+        InstrumentRateLimiter.ids[hole] = InstrumentRateLimiter.EMPTY;
+    }
+
+    private static void move(final int from, final int to) {
+        InstrumentRateLimiter.ids[to] = InstrumentRateLimiter.ids[from];
+        InstrumentRateLimiter.tokens[to] = InstrumentRateLimiter.tokens[from];
+        InstrumentRateLimiter.refilled[to] = InstrumentRateLimiter.refilled[from];
+        InstrumentRateLimiter.drops[to] = InstrumentRateLimiter.drops[from];
+    }
+
+    /**
+     * Doubles the capacity of the table, reinserting every bucket.
+     */
+    private static void grow() {
+        final int[] ids = InstrumentRateLimiter.ids;
+        final float[] tokens = InstrumentRateLimiter.tokens;
+        final long[] refilled = InstrumentRateLimiter.refilled;
+        final int[] drops = InstrumentRateLimiter.drops;
+        InstrumentRateLimiter.allocate(ids.length << 1);
+        for (int slot = 0; slot < ids.length; slot++)
+            if (ids[slot] != InstrumentRateLimiter.EMPTY)
+                InstrumentRateLimiter.drops[InstrumentRateLimiter.insert(ids[slot], tokens[slot],
+                        refilled[slot])] = drops[slot];
+    }
+
+    /**
+     * Replaces the table with an empty one.
+     *
+     * @param capacity The capacity of the table, must be a power of two
+     */
+    private static void allocate(final int capacity) {
+        InstrumentRateLimiter.ids = InstrumentRateLimiter.emptyIds(capacity);
+        InstrumentRateLimiter.tokens = new float[capacity];
+        InstrumentRateLimiter.refilled = new long[capacity];
+        InstrumentRateLimiter.drops = new int[capacity];
+        InstrumentRateLimiter.size = 0;
+    }
+
+    private static int[] emptyIds(final int capacity) {
+        final int[] ids = new int[capacity];
+        Arrays.fill(ids, InstrumentRateLimiter.EMPTY);
+        return ids;
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.sound;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.Nullable;
+
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+
+import io.github.forgecommunitywiki.examplemod.item.InstrumentItem;
+import io.github.forgecommunitywiki.examplemod.network.NetworkHandler;
+import io.github.forgecommunitywiki.examplemod.network.SyncInstrumentSoundsMessage;
+import io.github.forgecommunitywiki.examplemod.util.GeneralHelper;
+import net.minecraft.block.Block;
+import net.minecraft.client.resources.ReloadListener;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.item.Item;
+import net.minecraft.profiler.IProfiler;
+import net.minecraft.resources.IResource;
+import net.minecraft.resources.IResourceManager;
+import net.minecraft.util.JSONUtils;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.SoundEvent;
+import net.minecraftforge.event.TagsUpdatedEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.fml.network.PacketDistributor;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
+import net.minecraftforge.registries.ForgeRegistries;
+import net.minecraftforge.registries.IForgeRegistry;
+import net.minecraftforge.registries.IForgeRegistryEntry;
+
+/**
+ * A reload listener used to load the sounds instruments make when hitting a
+ * block from data packs. The mappings are read and compiled off the main thread
+ * and then published as a single {@link InstrumentSoundTable} snapshot, so
+ * readers on any thread never observe a partially loaded table.
+ *
+ * <p>
+ * Each file within {@code data/<namespace>/instrument_sounds} holds the
+ * mappings of a single instrument. A key is either a block or a block tag
+ * prefixed with {@code #}. A value is either the sound or an object holding the
+ * sound and the priority of the rule, which defaults to 0:
+ *
+ * <pre>
+ * {
+ *   "replace": false,
+ *   "instrument": "examplemod:drumstick",
+ *   "sounds": {
+ *     "minecraft:oak_log": "examplemod:instrument.drumstick.oak_log",
+ *     "#minecraft:logs": {
+ *       "sound": "examplemod:instrument.drumstick.oak_log",
+ *       "priority": -1
+ *     }
+ *   }
+ * }
+ * </pre>
+ *
+ * Files for the same instrument are merged in data pack order unless
+ * {@code replace} is set, in which case all previously loaded mappings for the
+ * instrument are discarded. See {@link InstrumentSoundRule} for how conflicting
+ * rules are resolved. As tags are resolved when the table is compiled, the
+ * table is compiled again whenever the tags are updated.
+ */
+public final class InstrumentSoundManager extends ReloadListener<InstrumentSoundTable> {
+
+    /**
+     * The data pack folder holding the instrument sounds.
+     */
+    public static final String FOLDER = "instrument_sounds";
+
+    /**
+     * A log marker used for the manager.
+     */
+    private static final Marker MARKER = MarkerManager.getMarker("Instrument Sound Manager");
+
+    /**
+     * The currently published table.
+     */
+    private static final AtomicReference<InstrumentSoundTable> TABLE = new AtomicReference<>(
+            InstrumentSoundTable.EMPTY);
+
+    /**
+     * Reads and compiles the instrument sounds. This is executed on the reload
+     * executor.
+     */
+    @Override
+    protected InstrumentSoundTable prepare(final IResourceManager resourceManager, final IProfiler profiler) {
+        final Map<InstrumentItem, List<InstrumentSoundRule>> rules = new HashMap<>();
+        for (final ResourceLocation location : resourceManager.getAllResourceLocations(InstrumentSoundManager.FOLDER,
+                path -> path.endsWith(".json")))
+            try {
+                for (final IResource resource : resourceManager.getAllResources(location))
+                    try (final IResource res = resource;
+                            final Reader reader = new BufferedReader(
+                                    new InputStreamReader(res.getInputStream(), StandardCharsets.UTF_8))) {
+                        InstrumentSoundManager.read(JSONUtils.fromJson(GeneralHelper.GSON, reader, JsonObject.class),
+                                rules);
+                    } catch (final IOException | RuntimeException e) {
+                        GeneralHelper.LOGGER.error(InstrumentSoundManager.MARKER,
+                                "Couldn't read instrument sounds {} in data pack {}", location, resource.getPackName(),
+                                e);
+                    }
+            } catch (final IOException e) {
+                GeneralHelper.LOGGER.error(InstrumentSoundManager.MARKER, "Couldn't read instrument sounds {}",
+                        location, e);
+            }
+        return InstrumentSoundTable.compile(rules);
+    }
+
+    /**
+     * Publishes the compiled table and sends it to all connected players.
+     */
+    @Override
+    protected void apply(final InstrumentSoundTable object, final IResourceManager resourceManager,
+            final IProfiler profiler) {
+        InstrumentSoundManager.publish(object);
+        if (ServerLifecycleHooks.getCurrentServer() != null)
+            NetworkHandler.CHANNEL.send(PacketDistributor.ALL.noArg(), new SyncInstrumentSoundsMessage(object));
+    }
+
+    /**
+     * Reads the instrument sounds of a single file into the mappings.
+     *
+     * @param  json               The instrument sounds file
+     * @param  rules              The current instrument sound rules
+     * @throws JsonSyntaxException If the file is malformed or references an
+     *                             unknown registry object
+     */
+    private static void read(final JsonObject json, final Map<InstrumentItem, List<InstrumentSoundRule>> rules) {
+        final Item item = InstrumentSoundManager.getEntry(ForgeRegistries.ITEMS,
+                JSONUtils.getString(json, "instrument"));
+        if (!(item instanceof InstrumentItem))
+            throw new JsonSyntaxException("Not an instrument: " + item.getRegistryName());
+
+        // Parse the entire file first, so a malformed file does not partially apply
+        final List<InstrumentSoundRule> fileRules = new ArrayList<>();
+        for (final Map.Entry<String, JsonElement> entry : JSONUtils.getJsonObject(json, "sounds").entrySet()) {
+            final String key = entry.getKey();
+            final SoundEvent sound;
+            final int priority;
+            if (entry.getValue().isJsonObject()) {
+                final JsonObject value = entry.getValue().getAsJsonObject();
+                sound = InstrumentSoundManager.getEntry(ForgeRegistries.SOUND_EVENTS,
+                        JSONUtils.getString(value, "sound"));
+                priority = JSONUtils.getInt(value, "priority", 0);
+            } else {
+                sound = InstrumentSoundManager.getEntry(ForgeRegistries.SOUND_EVENTS,
+                        JSONUtils.getString(entry.getValue(), key));
+                priority = 0;
+            }
+            fileRules.add(key.startsWith("#")
+                    ? InstrumentSoundRule.tag(new ResourceLocation(key.substring(1)), sound, priority)
+                    : InstrumentSoundRule.block(InstrumentSoundManager.getEntry(ForgeRegistries.BLOCKS, key), sound,
+                            priority));
+        }
+
+        final List<InstrumentSoundRule> instrumentRules = rules.computeIfAbsent((InstrumentItem) item,
+                i -> new ArrayList<>());
+        if (JSONUtils.getBoolean(json, "replace", false))
+            instrumentRules.clear();
+        instrumentRules.addAll(fileRules);
+    }
+
+    /**
+     * Gets the registry object associated with the name.
+     *
+     * @param  <V>                 A forge supported registry entry type
+     * @param  registry            The forge registry
+     * @param  name                The registry name of the object
+     * @return                     The registry object
+     * @throws JsonSyntaxException If the object is not within the registry
+     */
+    private static <V extends IForgeRegistryEntry<V>> V getEntry(final IForgeRegistry<V> registry,
+            final String name) {
+        final ResourceLocation location = new ResourceLocation(name);
+        if (!registry.containsKey(location))
+            throw new JsonSyntaxException(
+                    "Not a valid registry object within " + registry.getRegistryName() + ": " + location);
+        return registry.getValue(location);
+    }
+
+    /**
+     * Publishes a new table to be read by all threads.
+     *
+     * @param table The compiled table
+     */
+    public static void publish(final InstrumentSoundTable table) {
+        InstrumentSoundManager.TABLE.set(table);
+    }
+
+    /**
+     * Recompiles the currently published table as the raw registry ids or tags
+     * have changed. If another table is published in the meantime, that table is
+     * recompiled instead.
+     */
+    public static void remap() {
+        InstrumentSoundManager.TABLE.updateAndGet(InstrumentSoundTable::recompile);
+    }
+
+    /**
+     * Recompiles the currently published table as the tags have been updated.
+     *
+     * @param event The tags updated event
+     */
+    public static void onTagsUpdated(final TagsUpdatedEvent event) {
+        InstrumentSoundManager.remap();
+    }
+
+    /**
+     * Sends the current table to a player logging in.
+     *
+     * @param event The player logged in event
+     */
+    public static void onPlayerLoggedIn(final PlayerEvent.PlayerLoggedInEvent event) {
+        if (event.getPlayer() instanceof ServerPlayerEntity)
+            NetworkHandler.CHANNEL.send(PacketDistributor.PLAYER.with(() -> (ServerPlayerEntity) event.getPlayer()),
+                    new SyncInstrumentSoundsMessage(InstrumentSoundManager.TABLE.get()));
+    }
+
+    /**
+     * @return The currently published table.
+     */
+    public static InstrumentSoundTable getTable() { return InstrumentSoundManager.TABLE.get(); }
+
+    /**
+     * Gets the sound played when the instrument hits the block.
+     *
+     * @param  instrument The instrument hitting the block
+     * @param  block      The block being hit
+     * @return            The sound played, or null if there is none
+     */
+    @Nullable
+    public static SoundEvent getSound(final InstrumentItem instrument, final Block block) {
+        return InstrumentSoundManager.TABLE.get().get(instrument, block);
+    }
+}
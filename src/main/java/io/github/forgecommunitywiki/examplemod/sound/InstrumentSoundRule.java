@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.sound;
+
+import java.util.Comparator;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.block.Block;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.tags.ITag;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.SoundEvent;
+
+/**
+ * A rule mapping either a single block or every block within a tag to the sound
+ * an instrument makes when hitting it. When multiple rules match a block, the
+ * rule with the highest priority wins. On a tie, a block rule beats a tag rule
+ * and otherwise the rule loaded last wins.
+ */
+public final class InstrumentSoundRule {
+
+    /**
+     * Orders rules from lowest to highest precedence, excluding load order.
+     */
+    public static final Comparator<InstrumentSoundRule> PRECEDENCE = Comparator
+            .<InstrumentSoundRule>comparingInt(rule -> rule.priority).thenComparing(rule -> rule.block != null);
+
+    /**
+     * The block the rule matches, or null if it matches a tag.
+     */
+    @Nullable
+    private final Block block;
+    /**
+     * The tag the rule matches, or null if it matches a block.
+     */
+    @Nullable
+    private final ResourceLocation tag;
+    /**
+     * The sound played when a matched block is hit.
+     */
+    private final SoundEvent sound;
+    /**
+     * The priority of the rule.
+     */
+    private final int priority;
+
+    private InstrumentSoundRule(@Nullable final Block block, @Nullable final ResourceLocation tag,
+            final SoundEvent sound, final int priority) {
+        this.block = block;
+        this.tag = tag;
+        this.sound = sound;
+        this.priority = priority;
+    }
+
+    /**
+     * Creates a rule matching a single block.
+     *
+     * @param  block    The block to match
+     * @param  sound    The sound played when hit
+     * @param  priority The priority of the rule
+     * @return          A new rule
+     */
+    public static InstrumentSoundRule block(final Block block, final SoundEvent sound, final int priority) {
+        return new InstrumentSoundRule(block, null, sound, priority);
+    }
+
+    /**
+     * Creates a rule matching every block within a tag.
+     *
+     * @param  tag      The name of the block tag to match
+     * @param  sound    The sound played when hit
+     * @param  priority The priority of the rule
+     * @return          A new rule
+     */
+    public static InstrumentSoundRule tag(final ResourceLocation tag, final SoundEvent sound, final int priority) {
+        return new InstrumentSoundRule(null, tag, sound, priority);
+    }
+
+    /**
+     * Performs the action on every block currently matched by the rule. Tags are
+     * resolved using the currently bound block tags.
+     *
+     * @param action The action to perform
+     */
+    public void forEachBlock(final Consumer<Block> action) {
+        if (this.block != null)
+            action.accept(this.block);
+        else {
+            final ITag<Block> blocks = BlockTags.getCollection().get(this.tag);
+            if (blocks != null)
+                blocks.getAllElements().forEach(action);
+        }
+    }
+
+    /**
+     * @return The block the rule matches, or null if it matches a tag.
+     */
+    @Nullable
+    public Block getBlock() { return this.block; }
+
+    /**
+     * @return The tag the rule matches, or null if it matches a block.
+     */
+    @Nullable
+    public ResourceLocation getTag() { return this.tag; }
+
+    /**
+     * @return The sound played when a matched block is hit.
+     */
+    public SoundEvent getSound() { return this.sound; }
+
+    /**
+     * @return The priority of the rule.
+     */
+    public int getPriority() { return this.priority; }
+}
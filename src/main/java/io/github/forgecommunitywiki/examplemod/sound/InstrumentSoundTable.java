@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.sound;
+
+import java.util.*;
+
+import javax.annotation.Nullable;
+
+import io.github.forgecommunitywiki.examplemod.item.InstrumentItem;
+import net.minecraft.block.Block;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.registry.Registry;
+
+/**
+ * An immutable lookup table holding the sounds an {@link InstrumentItem} makes
+ * when hitting a specific {@link Block}. The {@link InstrumentSoundRule}s of
+ * each instrument are resolved into a dense row indexed by the raw registry id
+ * of the block, while the rows themselves are indexed by
+ * {@link InstrumentItem#getInstrumentIndex()}. This means a lookup never needs
+ * to check tag membership. As raw ids and tags can change, a table should be
+ * recompiled whenever that happens using {@link #recompile()}.
+ */
+public final class InstrumentSoundTable {
+
+    /**
+     * A table with no sounds present.
+     */
+    public static final InstrumentSoundTable EMPTY = new InstrumentSoundTable(Collections.emptyMap(),
+            new SoundEvent[0][]);
+
+    /**
+     * The rules the table was compiled from, in load order.
+     */
+    private final Map<InstrumentItem, List<InstrumentSoundRule>> rules;
+    /**
+     * The sounds of the table. A row is null if the instrument has no sounds.
+     */
+    private final SoundEvent[][] sounds;
+
+    private InstrumentSoundTable(final Map<InstrumentItem, List<InstrumentSoundRule>> rules,
+            final SoundEvent[][] sounds) {
+        this.rules = rules;
+        this.sounds = sounds;
+    }
+
+    /**
+     * Gets the sound played when the instrument hits the block.
+     *
+     * @param  instrument The instrument hitting the block
+     * @param  block      The block being hit
+     * @return            The sound played, or null if there is none
+     */
+    @Nullable
+    public SoundEvent get(final InstrumentItem instrument, final Block block) {
+        final int index = instrument.getInstrumentIndex();
+        if (index >= this.sounds.length)
+            return null;
+        final SoundEvent[] row = this.sounds[index];
+        if (row == null)
+            return null;
+        final int id = Registry.BLOCK.getId(block);
+        return id >= 0 && id < row.length ? row[id] : null;
+    }
+
+    /**
+     * @return The rules the table was compiled from, in load order.
+     */
+    public Map<InstrumentItem, List<InstrumentSoundRule>> getRules() { return this.rules; }
+
+    /**
+     * Compiles the rules of this table again using the current raw ids and tags.
+     *
+     * @return A compiled table of the same rules
+     */
+    public InstrumentSoundTable recompile() {
+        return InstrumentSoundTable.compile(this.rules);
+    }
+
+    /**
+     * Compiles the instrument sound rules into a table. Must be called after the
+     * block registry has been populated. Any tag rules are resolved using the
+     * currently bound block tags.
+     *
+     * @param  rules The instrument sound rules of each instrument in load order
+     * @return       A compiled table of the rules
+     */
+    public static InstrumentSoundTable compile(final Map<InstrumentItem, List<InstrumentSoundRule>> rules) {
+        if (rules.isEmpty())
+            return InstrumentSoundTable.EMPTY;
+
+        final Map<InstrumentItem, List<InstrumentSoundRule>> copy = new HashMap<>();
+        final SoundEvent[][] sounds = new SoundEvent[InstrumentItem.getInstrumentCount()][];
+        rules.forEach((instrument, instrumentRules) -> {
+            copy.put(instrument, Collections.unmodifiableList(new ArrayList<>(instrumentRules)));
+
+            // Stable sort, so rules of equal precedence remain in load order
+            final List<InstrumentSoundRule> ordered = new ArrayList<>(instrumentRules);
+            ordered.sort(InstrumentSoundRule.PRECEDENCE);
+
+            final Map<Block, SoundEvent> resolved = new IdentityHashMap<>();
+            for (final InstrumentSoundRule rule : ordered)
+                rule.forEachBlock(block -> resolved.put(block, rule.getSound()));
+
+            int length = 0;
+            for (final Block block : resolved.keySet())
+                length = Math.max(length, Registry.BLOCK.getId(block) + 1);
+            if (length == 0)
+                return;
+
+            final SoundEvent[] row = new SoundEvent[length];
+            resolved.forEach((block, sound) -> {
+                final int id = Registry.BLOCK.getId(block);
+                if (id >= 0)
+                    row[id] = sound;
+            });
+            sounds[instrument.getInstrumentIndex()] = row;
+        });
+        return new InstrumentSoundTable(Collections.unmodifiableMap(copy), sounds);
+    }
+}
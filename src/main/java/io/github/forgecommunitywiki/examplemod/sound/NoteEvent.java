@@ -0,0 +1,139 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.sound;
+
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.particles.ParticleTypes;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.registries.ForgeRegistries;
+
+/**
+ * A sound played by an instrument at a specific position, optionally
+ * displaying the note that was played.
+ */
+public final class NoteEvent {
+
+    /**
+     * Represents a sound that does not display a note.
+     */
+    public static final int NO_NOTE = -1;
+
+    private final BlockPos pos;
+    private final SoundEvent sound;
+    private final SoundCategory category;
+    private final float volume;
+    private final float pitch;
+    private final int note;
+
+    /**
+     * A constructor used to create a note event.
+     *
+     * @param pos      The position of the instrument
+     * @param sound    The sound played
+     * @param category The category of the sound
+     * @param volume   The volume of the sound
+     * @param pitch    The pitch of the sound
+     * @param note     The note displayed above the instrument, or {@link #NO_NOTE}
+     */
+    public NoteEvent(final BlockPos pos, final SoundEvent sound, final SoundCategory category, final float volume,
+            final float pitch, final int note) {
+        this.pos = pos.toImmutable();
+        this.sound = sound;
+        this.category = category;
+        this.volume = volume;
+        this.pitch = pitch;
+        this.note = note;
+    }
+
+    /**
+     * Writes the event to the buffer.
+     *
+     * @param buffer The buffer to write to
+     */
+    public void encode(final PacketBuffer buffer) {
+        buffer.writeBlockPos(this.pos);
+        buffer.writeRegistryIdUnsafe(ForgeRegistries.SOUND_EVENTS, this.sound);
+        buffer.writeByte(this.category.ordinal());
+        buffer.writeFloat(this.volume);
+        buffer.writeFloat(this.pitch);
+        buffer.writeByte(this.note);
+    }
+
+    /**
+     * Reads an event from the buffer.
+     *
+     * @param  buffer The buffer to read from
+     * @return        The decoded event
+     */
+    public static NoteEvent decode(final PacketBuffer buffer) {
+        return new NoteEvent(buffer.readBlockPos(), buffer.readRegistryIdUnsafe(ForgeRegistries.SOUND_EVENTS),
+                SoundCategory.values()[buffer.readUnsignedByte()], buffer.readFloat(), buffer.readFloat(),
+                buffer.readByte());
+    }
+
+    /**
+     * Gets the maximum distance the event can be heard from.
+     *
+     * @return The distance in blocks
+     */
+    public double getRange() { return this.volume > 1.0f ? 16d * this.volume : 16d; }
+
+    /**
+     * Displays the note particle above the instrument if present.
+     *
+     * @param world The world the instrument is in
+     */
+    public void addParticle(final World world) {
+        NoteEvent.addParticle(world, this.pos, this.note);
+    }
+
+    /**
+     * Displays the note particle above an instrument if present.
+     *
+     * @param world The world the instrument is in
+     * @param pos   The position of the instrument
+     * @param note  The note played, or {@link #NO_NOTE}
+     */
+    public static void addParticle(final World world, final BlockPos pos, final int note) {
+        if (note != NoteEvent.NO_NOTE)
+            world.addParticle(ParticleTypes.NOTE, pos.getX() + 0.5d, pos.getY() + 1.2d, pos.getZ() + 0.5d,
+                    note / 24d, 0d, 0d);
+    }
+
+    public BlockPos getPos() { return this.pos; }
+
+    public SoundEvent getSound() { return this.sound; }
+
+    public SoundCategory getCategory() { return this.category; }
+
+    public float getVolume() { return this.volume; }
+
+    public float getPitch() { return this.pitch; }
+
+    public int getNote() { return this.note; }
+}
@@ -0,0 +1,250 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.sound;
+
+import java.util.*;
+
+import javax.annotation.Nullable;
+
+import io.github.forgecommunitywiki.examplemod.client.ClientHandler;
+import io.github.forgecommunitywiki.examplemod.network.NetworkHandler;
+import io.github.forgecommunitywiki.examplemod.network.NoteEventsMessage;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.fml.DistExecutor;
+import net.minecraftforge.fml.event.server.FMLServerStoppedEvent;
+import net.minecraftforge.fml.network.PacketDistributor;
+
+/**
+ * Collects every note played on the server within a tick and sends them to
+ * each nearby player as a single {@link NoteEventsMessage} at the end of the
+ * world tick, instead of one sound packet per note. The client then replays
+ * the notes in the order they were played.
+ *
+ * <p>
+ * Notes played within the same tick at the same position with the same sound,
+ * category, pitch, and note are coalesced into a single note, such as when
+ * several players hit the same drum at once. The volumes of the notes are
+ * summed, but never beyond full volume or the loudest note, so the note is
+ * heard no further than before. None of the players who played the note
+ * receive it, as each has already played it on their client.
+ */
+public final class NoteEventBatcher {
+
+    /**
+     * The notes played in each world this tick, in the order they were first
+     * played, keyed by what identifies a note besides its volume.
+     */
+    private static final Map<RegistryKey<World>, Map<NoteKey, QueuedNoteEvent>> QUEUED = new HashMap<>();
+
+    /**
+     * Plays a note. On the server, the note is queued to be sent to all nearby
+     * players except the one playing it, as that player has already played it on
+     * their client. The note is coalesced with an identical note already played
+     * this tick. On the client, the note is played for the player directly.
+     *
+     * @param world    The world the instrument is in
+     * @param player   The player playing the note, or null if none
+     * @param pos      The position of the instrument
+     * @param sound    The sound played
+     * @param category The category of the sound
+     * @param volume   The volume of the sound
+     * @param pitch    The pitch of the sound
+     * @param note     The note displayed above the instrument, or
+     *                 {@link NoteEvent#NO_NOTE}
+     */
+    public static void play(final World world, @Nullable final PlayerEntity player, final BlockPos pos,
+            final SoundEvent sound, final SoundCategory category, final float volume, final float pitch,
+            final int note) {
+        if (world instanceof ServerWorld) {
+            final Map<NoteKey, QueuedNoteEvent> queued = NoteEventBatcher.QUEUED
+                    .computeIfAbsent(world.getDimensionKey(), key -> new LinkedHashMap<>());
+            final NoteKey key = new NoteKey(pos, sound, category, pitch, note);
+            final QueuedNoteEvent existing = queued.get(key);
+            if (existing != null)
+                existing.merge(volume, player);
+            else
+                queued.put(key, new QueuedNoteEvent(new NoteEvent(pos, sound, category, volume, pitch, note), player));
+        } else
+            DistExecutor.unsafeRunWhenOn(Dist.CLIENT, () -> () -> ClientHandler.getInstance()
+                    .playLocalNoteEvent(world, player, new NoteEvent(pos, sound, category, volume, pitch, note)));
+    }
+
+    /**
+     * Sends the notes played within the world this tick to each player in range.
+     *
+     * @param event The world tick event
+     */
+    public static void onWorldTick(final TickEvent.WorldTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || !(event.world instanceof ServerWorld))
+            return;
+        final Map<NoteKey, QueuedNoteEvent> queued = NoteEventBatcher.QUEUED.remove(event.world.getDimensionKey());
+        if (queued == null)
+            return;
+
+        for (final ServerPlayerEntity player : ((ServerWorld) event.world).getPlayers()) {
+            final List<NoteEvent> events = new ArrayList<>();
+            for (final QueuedNoteEvent entry : queued.values())
+                if (!entry.isExcepted(player) && entry.isInRange(player))
+                    events.add(entry.event);
+            if (!events.isEmpty())
+                NetworkHandler.CHANNEL.send(PacketDistributor.PLAYER.with(() -> player),
+                        new NoteEventsMessage(events));
+        }
+    }
+
+    /**
+     * Discards any notes not yet sent when the server stops.
+     *
+     * @param event The server stopped event
+     */
+    public static void onServerStopped(final FMLServerStoppedEvent event) {
+        NoteEventBatcher.QUEUED.clear();
+    }
+
+    /**
+     * What identifies a note played within a tick besides its volume.
+     */
+    private static final class NoteKey {
+
+        private final long pos;
+        private final SoundEvent sound;
+        private final SoundCategory category;
+        private final float pitch;
+        private final int note;
+
+        private NoteKey(final BlockPos pos, final SoundEvent sound, final SoundCategory category, final float pitch,
+                final int note) {
+            this.pos = pos.toLong();
+            this.sound = sound;
+            this.category = category;
+            this.pitch = pitch;
+            this.note = note;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof NoteKey))
+                return false;
+            final NoteKey other = (NoteKey) obj;
+            return this.pos == other.pos && this.sound == other.sound && this.category == other.category
+                    && Float.floatToIntBits(this.pitch) == Float.floatToIntBits(other.pitch)
+                    && this.note == other.note;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = Long.hashCode(this.pos);
+            hash = 31 * hash + this.sound.hashCode();
+            hash = 31 * hash + this.category.hashCode();
+            hash = 31 * hash + Float.floatToIntBits(this.pitch);
+            return 31 * hash + this.note;
+        }
+    }
+
+    /**
+     * A note waiting to be sent at the end of the tick.
+     */
+    private static final class QueuedNoteEvent {
+
+        private NoteEvent event;
+        /**
+         * The volume of the loudest note coalesced into this one.
+         */
+        private float loudest;
+        /**
+         * The player who played the note and should not receive it.
+         */
+        @Nullable
+        private PlayerEntity except;
+        /**
+         * Any other players who played a coalesced note, or null if none.
+         */
+        @Nullable
+        private List<PlayerEntity> otherExcepts;
+
+        private QueuedNoteEvent(final NoteEvent event, @Nullable final PlayerEntity except) {
+            this.event = event;
+            this.loudest = event.getVolume();
+            this.except = except;
+        }
+
+        /**
+         * Coalesces an identical note played by another player into this one.
+         *
+         * @param volume The volume of the note
+         * @param player The player playing the note, or null if none
+         */
+        private void merge(final float volume, @Nullable final PlayerEntity player) {
+            this.loudest = Math.max(this.loudest, volume);
+            final float merged = Math.min(this.event.getVolume() + volume, Math.max(1.0f, this.loudest));
+            if (merged != this.event.getVolume())
+                this.event = new NoteEvent(this.event.getPos(), this.event.getSound(), this.event.getCategory(),
+                        merged, this.event.getPitch(), this.event.getNote());
+
+            if (player == null || this.isExcepted(player))
+                return;
+            if (this.except == null)
+                this.except = player;
+            else {
+                if (this.otherExcepts == null)
+                    this.otherExcepts = new ArrayList<>(2);
+                this.otherExcepts.add(player);
+            }
+        }
+
+        /**
+         * Checks whether the player played the note and should not receive it.
+         *
+         * @param  player The player to check
+         * @return        True if the player played the note, false otherwise
+         */
+        private boolean isExcepted(final PlayerEntity player) {
+            return this.except == player || this.otherExcepts != null && this.otherExcepts.contains(player);
+        }
+
+        /**
+         * Checks whether the player is close enough to hear the note.
+         *
+         * @param  player The player to check
+         * @return        True if the note can be heard, false otherwise
+         */
+        private boolean isInRange(final PlayerEntity player) {
+            final BlockPos pos = this.event.getPos();
+            final double range = this.event.getRange();
+            return player.getDistanceSq(pos.getX() + 0.5d, pos.getY() + 0.5d, pos.getZ() + 0.5d) < range * range;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.sound;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import io.github.forgecommunitywiki.examplemod.config.ServerConfig;
+import net.minecraftforge.fml.config.ModConfig;
+
+/**
+ * Holds the precomputed pitch tables of every {@link TuningSystem}, such that
+ * playing a note is a single array read. The tables are compiled again whenever
+ * the server configuration changes.
+ */
+public final class PitchTables {
+
+    /**
+     * The default scale of the custom tuning system, a natural major scale.
+     */
+    public static final List<Double> DEFAULT_CUSTOM_SCALE = Arrays.asList(0d, 2d, 4d, 5d, 7d, 9d, 11d);
+
+    /**
+     * The pitch tables indexed by the ordinal of the tuning system.
+     */
+    private static volatile float[][] tables = PitchTables.compile(PitchTables.DEFAULT_CUSTOM_SCALE);
+    /**
+     * The tuning system used by instruments without their own.
+     */
+    private static volatile TuningSystem defaultSystem = TuningSystem.EQUAL_TEMPERAMENT;
+
+    /**
+     * Gets the pitch to play a note at.
+     *
+     * @param  system The tuning system of the instrument, or null to use the
+     *                server default
+     * @param  note   The note being played, between 0 and 24
+     * @return        The pitch of the sound
+     */
+    public static float getPitch(@Nullable final TuningSystem system, final int note) {
+        return PitchTables.tables[(system != null ? system : PitchTables.defaultSystem).ordinal()][note];
+    }
+
+    /**
+     * Compiles the pitch tables of every tuning system.
+     *
+     * @param  customScale The semitones of each scale degree for the custom tuning
+     *                     system
+     * @return             The pitch tables indexed by ordinal
+     */
+    private static float[][] compile(final List<? extends Number> customScale) {
+        final TuningSystem[] systems = TuningSystem.values();
+        final float[][] tables = new float[systems.length][];
+        for (final TuningSystem system : systems)
+            tables[system.ordinal()] = system.compile(customScale);
+        return tables;
+    }
+
+    /**
+     * Compiles the pitch tables again when the server configuration is loaded or
+     * reloaded.
+     *
+     * @param event The mod config event
+     */
+    public static void onConfigChanged(final ModConfig.ModConfigEvent event) {
+        if (event.getConfig().getSpec() != ServerConfig.SPEC)
+            return;
+        PitchTables.tables = PitchTables.compile(ServerConfig.INSTANCE.customScale.get());
+        PitchTables.defaultSystem = ServerConfig.INSTANCE.tuningSystem.get();
+    }
+}
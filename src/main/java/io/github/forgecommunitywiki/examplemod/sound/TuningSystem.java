@@ -0,0 +1,145 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.sound;
+
+import java.util.List;
+
+/**
+ * The tuning systems an instrument can be played in. Each system compiles into
+ * a table of pitches indexed by the note of the instrument, where note
+ * {@value #CENTER} plays the sound at its original pitch. Scales with fewer
+ * than twelve notes snap each note down to the closest note within the scale,
+ * so the range of the instrument stays the same.
+ */
+public enum TuningSystem {
+
+    /**
+     * Twelve-tone equal temperament, the tuning of vanilla note blocks.
+     */
+    EQUAL_TEMPERAMENT {
+
+        @Override
+        protected double ratio(final int semitones, final List<? extends Number> customScale) {
+            return TuningSystem.equalTemperament(semitones);
+        }
+    },
+    /**
+     * Five-limit just intonation relative to the center note.
+     */
+    JUST_INTONATION {
+
+        @Override
+        protected double ratio(final int semitones, final List<? extends Number> customScale) {
+            return TuningSystem.JUST_RATIOS[Math.floorMod(semitones, 12)]
+                    * Math.pow(2d, Math.floorDiv(semitones, 12));
+        }
+    },
+    /**
+     * The major pentatonic scale in equal temperament.
+     */
+    PENTATONIC {
+
+        @Override
+        protected double ratio(final int semitones, final List<? extends Number> customScale) {
+            final int octave = Math.floorDiv(semitones, 12);
+            int degree = Math.floorMod(semitones, 12);
+            while (!TuningSystem.PENTATONIC_DEGREES[degree])
+                degree--;
+            return TuningSystem.equalTemperament(octave * 12 + degree);
+        }
+    },
+    /**
+     * A scale read from the server configuration, defined as the semitones of
+     * each scale degree within an octave. Fractional semitones are allowed and
+     * the root is always part of the scale.
+     */
+    CUSTOM {
+
+        @Override
+        protected double ratio(final int semitones, final List<? extends Number> customScale) {
+            final int octave = Math.floorDiv(semitones, 12);
+            final int offset = Math.floorMod(semitones, 12);
+            double degree = 0d;
+            for (final Number scaleDegree : customScale)
+                if (scaleDegree.doubleValue() <= offset)
+                    degree = Math.max(degree, scaleDegree.doubleValue());
+            return Math.pow(2d, octave + degree / 12d);
+        }
+    };
+
+    /**
+     * The number of notes an instrument can play.
+     */
+    public static final int NOTES = 25;
+    /**
+     * The note which plays the sound at its original pitch.
+     */
+    public static final int CENTER = 12;
+
+    /**
+     * The frequency ratios of each semitone in five-limit just intonation.
+     */
+    private static final double[] JUST_RATIOS = { 1d, 16d / 15d, 9d / 8d, 6d / 5d, 5d / 4d, 4d / 3d, 45d / 32d,
+            3d / 2d, 8d / 5d, 5d / 3d, 9d / 5d, 15d / 8d };
+    /**
+     * The semitones within an octave that are part of the major pentatonic scale.
+     */
+    private static final boolean[] PENTATONIC_DEGREES = { true, false, true, false, true, false, false, true, false,
+            true, false, false };
+
+    /**
+     * Compiles the pitches of every note within this tuning system.
+     *
+     * @param  customScale The semitones of each scale degree for the custom tuning
+     *                     system
+     * @return             A table of pitches indexed by note
+     */
+    public float[] compile(final List<? extends Number> customScale) {
+        final float[] pitches = new float[TuningSystem.NOTES];
+        for (int note = 0; note < TuningSystem.NOTES; note++)
+            pitches[note] = (float) this.ratio(note - TuningSystem.CENTER, customScale);
+        return pitches;
+    }
+
+    /**
+     * Computes the frequency ratio of a note relative to the center note.
+     *
+     * @param  semitones   The number of semitones from the center note
+     * @param  customScale The semitones of each scale degree for the custom tuning
+     *                     system
+     * @return             The frequency ratio, used as the pitch of the sound
+     */
+    protected abstract double ratio(int semitones, List<? extends Number> customScale);
+
+    /**
+     * Computes the frequency ratio of a note in twelve-tone equal temperament.
+     *
+     * @param  semitones The number of semitones from the center note
+     * @return           The frequency ratio
+     */
+    private static double equalTemperament(final int semitones) {
+        return Math.pow(2d, semitones / 12d);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.tileentity;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.github.forgecommunitywiki.examplemod.util.TimingWheel;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.world.World;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.world.WorldEvent;
+
+/**
+ * Schedules the steps of every {@link SequencerTileEntity} within a world on a
+ * single {@link TimingWheel}. Sequencers waiting on their next step cost
+ * nothing until the tick they fire on.
+ */
+public final class SequencerScheduler {
+
+    /**
+     * The number of slots in each wheel. Covers a little over twelve seconds
+     * before a timer needs to wait more than one rotation.
+     */
+    private static final int SLOTS = 256;
+    private static final Map<RegistryKey<World>, TimingWheel<SequencerTileEntity>> WHEELS = new HashMap<>();
+
+    /**
+     * Schedules the sequencer to play its next step.
+     *
+     * @param  world     The world the sequencer is in
+     * @param  deadline  The game time to play the step on
+     * @param  sequencer The sequencer
+     * @return           A timer which can be used to cancel the step
+     */
+    public static TimingWheel.Timer<SequencerTileEntity> schedule(final ServerWorld world, final long deadline,
+            final SequencerTileEntity sequencer) {
+        return SequencerScheduler.WHEELS
+                .computeIfAbsent(world.getDimensionKey(), key -> new TimingWheel<>(SequencerScheduler.SLOTS))
+                .schedule(deadline, sequencer);
+    }
+
+    /**
+     * Plays the steps of the sequencers scheduled on the current game time.
+     *
+     * @param event The world tick event
+     */
+    public static void onWorldTick(final TickEvent.WorldTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || !(event.world instanceof ServerWorld))
+            return;
+        final TimingWheel<SequencerTileEntity> wheel = SequencerScheduler.WHEELS
+                .get(event.world.getDimensionKey());
+        if (wheel != null)
+            wheel.advance(event.world.getGameTime(), SequencerTileEntity::playStep);
+    }
+
+    /**
+     * Removes the wheel of the world when it is unloaded.
+     *
+     * @param event The world unload event
+     */
+    public static void onWorldUnload(final WorldEvent.Unload event) {
+        if (event.getWorld() instanceof ServerWorld)
+            SequencerScheduler.WHEELS.remove(((ServerWorld) event.getWorld()).getDimensionKey());
+    }
+}
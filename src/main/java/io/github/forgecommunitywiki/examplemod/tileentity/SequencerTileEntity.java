@@ -0,0 +1,278 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.tileentity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import io.github.forgecommunitywiki.examplemod.GeneralRegistrar;
+import io.github.forgecommunitywiki.examplemod.block.RotatedInstrumentBlock;
+import io.github.forgecommunitywiki.examplemod.util.TimingWheel;
+import net.minecraft.block.BlockState;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.ListNBT;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.common.util.Constants;
+
+/**
+ * Plays a loop of steps on nearby {@link RotatedInstrumentBlock}s at a set
+ * tempo. Rather than ticking, the sequencer is scheduled on the
+ * {@link SequencerScheduler} for the game time of its next step.
+ *
+ * <p>
+ * The time of each step is calculated from an anchor instead of the previous
+ * step, so the loop does not drift when the tempo does not divide evenly into
+ * ticks or when the chunk is unloaded and loaded again. Steps missed while
+ * unloaded are skipped.
+ *
+ * <p>
+ * The steps are stored in the {@code Steps} tag as a list of offsets
+ * {@code X}, {@code Y}, {@code Z} and a {@code Note}, and can be edited using
+ * commands or the item's block entity tag.
+ */
+public class SequencerTileEntity extends TileEntity {
+
+    /**
+     * The tempos, in beats per minute, the sequencer can be cycled through.
+     */
+    public static final int[] TEMPOS = { 60, 90, 120, 150, 180, 240, 300 };
+    /**
+     * The maximum distance on each axis a step can be from the sequencer.
+     */
+    public static final int MAX_OFFSET = 16;
+    private static final int DEFAULT_TEMPO = 120;
+    private static final long TICKS_PER_MINUTE = 1200L;
+
+    private final List<Step> steps = new ArrayList<>();
+    private int tempo = SequencerTileEntity.DEFAULT_TEMPO;
+    private boolean running;
+    /**
+     * The game time the anchor step is played on.
+     */
+    private long anchorTick;
+    /**
+     * The step the time of every following step is calculated from.
+     */
+    private long anchorStep;
+    /**
+     * The next step to play, counting from the start of the sequence.
+     */
+    private long nextStep;
+    @Nullable
+    private TimingWheel.Timer<SequencerTileEntity> timer;
+
+    public SequencerTileEntity() {
+        super(GeneralRegistrar.SEQUENCER_TILE.get());
+    }
+
+    /**
+     * Starts the sequence from the first step or stops it if running.
+     *
+     * @return True if the sequencer is now running, false otherwise
+     */
+    public boolean toggle() {
+        this.running = !this.running;
+        if (this.running) {
+            this.anchorTick = this.world.getGameTime() + 1;
+            this.anchorStep = 0;
+        }
+        this.schedule();
+        this.markDirty();
+        return this.running;
+    }
+
+    /**
+     * Changes to the next tempo. The sequence continues from the current step at
+     * the new tempo.
+     *
+     * @return The new tempo in beats per minute
+     */
+    public int cycleTempo() {
+        int index = 0;
+        while (index < SequencerTileEntity.TEMPOS.length && SequencerTileEntity.TEMPOS[index] <= this.tempo)
+            index++;
+        this.tempo = SequencerTileEntity.TEMPOS[index % SequencerTileEntity.TEMPOS.length];
+        if (this.running) {
+            this.anchorTick = this.world.getGameTime() + 1;
+            this.anchorStep = this.nextStep;
+            this.schedule();
+        }
+        this.markDirty();
+        return this.tempo;
+    }
+
+    /**
+     * Gets the game time the step should be played on.
+     *
+     * @param  step The step counting from the start of the sequence
+     * @return      The game time of the step
+     */
+    private long getStepTick(final long step) {
+        return this.anchorTick + (step - this.anchorStep) * SequencerTileEntity.TICKS_PER_MINUTE / this.tempo;
+    }
+
+    /**
+     * Schedules the next step that has not yet passed, cancelling any previously
+     * scheduled step.
+     */
+    private void schedule() {
+        this.cancel();
+        if (!this.running || this.steps.isEmpty() || !(this.world instanceof ServerWorld) || this.removed)
+            return;
+
+        // Skip any steps that passed while not scheduled
+        final long elapsed = this.world.getGameTime() - this.anchorTick;
+        this.nextStep = elapsed <= 0 ? this.anchorStep
+                : this.anchorStep + Math.floorDiv(elapsed * this.tempo + SequencerTileEntity.TICKS_PER_MINUTE - 1,
+                        SequencerTileEntity.TICKS_PER_MINUTE);
+        this.timer = SequencerScheduler.schedule((ServerWorld) this.world, this.getStepTick(this.nextStep), this);
+    }
+
+    /**
+     * Cancels the scheduled step if present.
+     */
+    private void cancel() {
+        if (this.timer != null) {
+            this.timer.cancel();
+            this.timer = null;
+        }
+    }
+
+    /**
+     * Plays the next step and schedules the one after it. Called by the
+     * {@link SequencerScheduler}.
+     */
+    void playStep() {
+        this.timer = null;
+        if (!this.running || this.steps.isEmpty() || this.removed)
+            return;
+
+        final Step step = this.steps.get((int) (this.nextStep % this.steps.size()));
+        final BlockPos target = this.pos.add(step.offset);
+        if (this.world.isBlockLoaded(target)) {
+            final BlockState state = this.world.getBlockState(target);
+            if (state.getBlock() instanceof RotatedInstrumentBlock)
+                ((RotatedInstrumentBlock) state.getBlock()).trigger(state, this.world, target, step.note);
+        }
+
+        this.nextStep++;
+        this.timer = SequencerScheduler.schedule((ServerWorld) this.world, this.getStepTick(this.nextStep), this);
+    }
+
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        this.schedule();
+    }
+
+    @Override
+    public void remove() {
+        super.remove();
+        this.cancel();
+    }
+
+    @Override
+    public void onChunkUnloaded() {
+        super.onChunkUnloaded();
+        this.cancel();
+    }
+
+    @Override
+    public void read(final BlockState state, final CompoundNBT nbt) {
+        super.read(state, nbt);
+        this.steps.clear();
+        final ListNBT steps = nbt.getList("Steps", Constants.NBT.TAG_COMPOUND);
+        for (int i = 0; i < steps.size(); i++)
+            this.steps.add(Step.read(steps.getCompound(i)));
+        this.tempo = nbt.contains("Tempo", Constants.NBT.TAG_INT)
+                ? MathHelper.clamp(nbt.getInt("Tempo"), 1, (int) SequencerTileEntity.TICKS_PER_MINUTE)
+                : SequencerTileEntity.DEFAULT_TEMPO;
+        this.running = nbt.getBoolean("Running");
+        this.anchorTick = nbt.getLong("AnchorTick");
+        this.anchorStep = nbt.getLong("AnchorStep");
+
+        // Data was changed while loaded, such as by a command
+        if (this.world != null)
+            this.schedule();
+    }
+
+    @Override
+    public CompoundNBT write(final CompoundNBT compound) {
+        final CompoundNBT nbt = super.write(compound);
+        final ListNBT steps = new ListNBT();
+        this.steps.forEach(step -> steps.add(step.write()));
+        nbt.put("Steps", steps);
+        nbt.putInt("Tempo", this.tempo);
+        nbt.putBoolean("Running", this.running);
+        nbt.putLong("AnchorTick", this.anchorTick);
+        nbt.putLong("AnchorStep", this.anchorStep);
+        return nbt;
+    }
+
+    /**
+     * A single step within the sequence.
+     */
+    private static final class Step {
+
+        private final BlockPos offset;
+        private final int note;
+
+        private Step(final BlockPos offset, final int note) {
+            this.offset = offset;
+            this.note = note;
+        }
+
+        /**
+         * Reads a step, clamping the offset and note to their valid ranges.
+         *
+         * @param  nbt The step tag
+         * @return     The step
+         */
+        private static Step read(final CompoundNBT nbt) {
+            return new Step(
+                    new BlockPos(Step.clampOffset(nbt.getInt("X")), Step.clampOffset(nbt.getInt("Y")),
+                            Step.clampOffset(nbt.getInt("Z"))),
+                    MathHelper.clamp(nbt.getInt("Note"), 0, RotatedInstrumentBlock.MAX_NOTE));
+        }
+
+        private static int clampOffset(final int offset) {
+            return MathHelper.clamp(offset, -SequencerTileEntity.MAX_OFFSET, SequencerTileEntity.MAX_OFFSET);
+        }
+
+        private CompoundNBT write() {
+            final CompoundNBT nbt = new CompoundNBT();
+            nbt.putInt("X", this.offset.getX());
+            nbt.putInt("Y", this.offset.getY());
+            nbt.putInt("Z", this.offset.getZ());
+            nbt.putInt("Note", this.note);
+            return nbt;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.util;
+
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.tileentity.AbstractFurnaceTileEntity;
+import net.minecraftforge.event.TagsUpdatedEvent;
+
+/**
+ * A cache of the burn times of items, used by blocks and items that borrow the
+ * burn time of another item. Looking up the vanilla burn times creates a new
+ * map of every fuel each time, so each item is resolved once and served from
+ * the cache afterwards. The cache is cleared whenever tags are reloaded as
+ * vanilla fuels are partially defined by tags. Nothing is cached before tags
+ * are first bound, as the vanilla fuels read their tags when built.
+ *
+ * <p>
+ * The cache is replaced on write, so lookups from both logical sides can read
+ * it without locking.
+ */
+public final class BurnTimeCache {
+
+    /**
+     * Represents an item whose burn time has not been resolved.
+     */
+    private static final int UNRESOLVED = Integer.MIN_VALUE;
+
+    private static volatile Reference2IntOpenHashMap<Item> cache = BurnTimeCache.createCache();
+    /**
+     * The vanilla burn times, or null if not yet needed since the last reload.
+     */
+    @Nullable
+    private static volatile Map<Item, Integer> vanillaBurnTimes;
+    /**
+     * Whether tags have been bound since the game started.
+     */
+    private static volatile boolean tagsBound;
+
+    /**
+     * Gets the burn time of the item without allocating once resolved.
+     *
+     * @param  item The item
+     * @return      The burn time of the item, or -1 if it is not a fuel or tags
+     *              are not bound yet
+     */
+    public static int getBurnTime(final Item item) {
+        if (!BurnTimeCache.tagsBound)
+            return -1;
+        final Reference2IntOpenHashMap<Item> current = BurnTimeCache.cache;
+        int time = current.getInt(item);
+        if (time == BurnTimeCache.UNRESOLVED) {
+            time = BurnTimeCache.resolve(item);
+            final Reference2IntOpenHashMap<Item> updated = BurnTimeCache.createCache();
+            updated.putAll(current);
+            updated.put(item, time);
+            BurnTimeCache.cache = updated;
+        }
+        return time;
+    }
+
+    /**
+     * Resolves the burn time of the item from Forge or the vanilla fuels.
+     *
+     * @param  item The item
+     * @return      The burn time of the item, or -1 if it is not a fuel
+     */
+    @SuppressWarnings("deprecation") // Forge deprecation, only used to get vanilla burn times
+    private static int resolve(final Item item) {
+        final int time = item.getBurnTime(new ItemStack(item));
+        if (time != -1)
+            return time;
+        Map<Item, Integer> vanilla = BurnTimeCache.vanillaBurnTimes;
+        if (vanilla == null)
+            BurnTimeCache.vanillaBurnTimes = vanilla = AbstractFurnaceTileEntity.getBurnTimes();
+        return vanilla.getOrDefault(item, -1);
+    }
+
+    /**
+     * Clears the cache as the burn times of tagged fuels may have changed.
+     *
+     * @param event The tags updated event
+     */
+    public static void onTagsUpdated(final TagsUpdatedEvent event) {
+        BurnTimeCache.tagsBound = true;
+        BurnTimeCache.vanillaBurnTimes = null;
+        BurnTimeCache.cache = BurnTimeCache.createCache();
+    }
+
+    private static Reference2IntOpenHashMap<Item> createCache() {
+        final Reference2IntOpenHashMap<Item> map = new Reference2IntOpenHashMap<>();
+        map.defaultReturnValue(BurnTimeCache.UNRESOLVED);
+        return map;
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.github.forgecommunitywiki.examplemod.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.github.forgecommunitywiki.examplemod.config.ServerConfig;
+import net.minecraftforge.fml.config.ModConfig;
+
+/**
+ * The metrics of the hot paths of the mod, reported to operators through
+ * {@code /examplemod stats}. Counters and histograms are backed by
+ * {@link LongAdder}s, which stripe their updates across threads so recording
+ * does not contend. Histograms use fixed power of two buckets of nanoseconds,
+ * so recording a time never allocates or searches.
+ *
+ * <p>
+ * Metrics are only collected when {@link ServerConfig#collectMetrics} is
+ * enabled. Otherwise, recording costs a single field read.
+ */
+public final class Metrics {
+
+    private static final List<Metric> METRICS = new ArrayList<>();
+
+    private static volatile boolean enabled;
+    /**
+     * The time the metrics were last reset in nanoseconds.
+     */
+    private static volatile long since = System.nanoTime();
+
+    // Instruments
+    public static final Timer INSTRUMENT_BLOCK_ACTIVATE = Metrics.register(new Timer("instrument_block.activate"));
+    public static final Timer INSTRUMENT_ITEM_USE = Metrics.register(new Timer("instrument_item.use"));
+    public static final Counter SOUND_LOOKUP_HITS = Metrics.register(new Counter("sound_lookup.hits"));
+    public static final Counter SOUND_LOOKUP_MISSES = Metrics.register(new Counter("sound_lookup.misses"));
+
+    // Loot
+    public static final Timer REPLACE_LOOT_APPLY = Metrics.register(new Timer("replace_loot.apply"));
+    public static final Counter REPLACE_LOOT_ITEMS_IN = Metrics.register(new Counter("replace_loot.items_in"));
+    public static final Counter REPLACE_LOOT_ITEMS_OUT = Metrics.register(new Counter("replace_loot.items_out"));
+
+    // Effects, triggered by the effect itself or the damage over time scheduler
+    public static final Timer DAMAGE_EFFECT_PERFORM = Metrics.register(new Timer("damage_effect.perform"));
+
+    private static <M extends Metric> M register(final M metric) {
+        Metrics.METRICS.add(metric);
+        return metric;
+    }
+
+    /**
+     * Enables or disables collecting metrics when the server configuration is
+     * loaded or reloaded.
+     *
+     * @param event The mod config event
+     */
+    public static void onConfigChanged(final ModConfig.ModConfigEvent event) {
+        if (event.getConfig().getSpec() != ServerConfig.SPEC)
+            return;
+        final boolean collect = ServerConfig.INSTANCE.collectMetrics.get();
+        if (collect && !Metrics.enabled)
+            Metrics.reset();
+        Metrics.enabled = collect;
+    }
+
+    public static boolean isEnabled() { return Metrics.enabled; }
+
+    /**
+     * Resets every metric. Updates recorded while resetting may be partially
+     * lost.
+     */
+    public static void reset() {
+        Metrics.METRICS.forEach(Metric::reset);
+        Metrics.since = System.nanoTime();
+    }
+
+    /**
+     * @return The number of seconds since the metrics were last reset.
+     */
+    public static double getElapsedSeconds() { return (System.nanoTime() - Metrics.since) / 1.0E9d; }
+
+    /**
+     * @return Every metric in the order they were registered.
+     */
+    public static List<Metric> getMetrics() { return Collections.unmodifiableList(Metrics.METRICS); }
+
+    /**
+     * A named metric.
+     */
+    public abstract static class Metric {
+
+        private final String name;
+
+        private Metric(final String name) {
+            this.name = name;
+        }
+
+        /**
+         * Resets the values of the metric.
+         */
+        protected abstract void reset();
+
+        public String getName() { return this.name; }
+    }
+
+    /**
+     * A metric counting how many times something has happened.
+     */
+    public static final class Counter extends Metric {
+
+        private final LongAdder count = new LongAdder();
+
+        private Counter(final String name) {
+            super(name);
+        }
+
+        /**
+         * Increments the counter by one.
+         */
+        public void increment() {
+            if (Metrics.enabled)
+                this.count.increment();
+        }
+
+        /**
+         * Increments the counter.
+         *
+         * @param amount The amount to increment by
+         */
+        public void add(final long amount) {
+            if (Metrics.enabled)
+                this.count.add(amount);
+        }
+
+        public long getCount() { return this.count.sum(); }
+
+        @Override
+        protected void reset() {
+            this.count.reset();
+        }
+    }
+
+    /**
+     * A metric recording how long something takes as a histogram.
+     */
+    public static final class Timer extends Metric {
+
+        /**
+         * The number of buckets. Bucket {@code i} holds the times below
+         * {@code 2^i} nanoseconds, with the last bucket holding every time above.
+         */
+        private static final int BUCKETS = 40;
+
+        private final LongAdder[] buckets = new LongAdder[Timer.BUCKETS];
+        private final LongAdder totalNanos = new LongAdder();
+
+        private Timer(final String name) {
+            super(name);
+            for (int i = 0; i < Timer.BUCKETS; i++)
+                this.buckets[i] = new LongAdder();
+        }
+
+        /**
+         * Starts timing a call.
+         *
+         * @return The start time to pass to {@link #stop(long)}, or zero if
+         *         metrics are disabled
+         */
+        public long start() {
+            return Metrics.enabled ? System.nanoTime() : 0L;
+        }
+
+        /**
+         * Stops timing a call and records its time.
+         *
+         * @param start The start time returned by {@link #start()}
+         */
+        public void stop(final long start) {
+            if (start == 0L)
+                return;
+            final long nanos = Math.max(0L, System.nanoTime() - start);
+            this.buckets[Math.min(64 - Long.numberOfLeadingZeros(nanos), Timer.BUCKETS - 1)].increment();
+            this.totalNanos.add(nanos);
+        }
+
+        /**
+         * @return The number of calls recorded.
+         */
+        public long getCount() {
+            long count = 0L;
+            for (final LongAdder bucket : this.buckets)
+                count += bucket.sum();
+            return count;
+        }
+
+        public long getTotalNanos() { return this.totalNanos.sum(); }
+
+        /**
+         * Estimates a percentile of the recorded times as the upper bound of the
+         * bucket it falls within.
+         *
+         * @param  percentile The percentile between 0 and 1
+         * @return            The estimated time in nanoseconds, or zero if nothing
+         *                    was recorded
+         */
+        public long getPercentile(final double percentile) {
+            final long[] counts = new long[Timer.BUCKETS];
+            long total = 0L;
+            for (int i = 0; i < Timer.BUCKETS; i++)
+                total += counts[i] = this.buckets[i].sum();
+            if (total == 0L)
+                return 0L;
+
+            final long rank = Math.max(1L, (long) Math.ceil(percentile * total));
+            long seen = 0L;
+            for (int i = 0; i < Timer.BUCKETS; i++)
+                if ((seen += counts[i]) >= rank)
+                    return 1L << i;
+            return 1L << (Timer.BUCKETS - 1);
+        }
+
+        @Override
+        protected void reset() {
+            for (final LongAdder bucket : this.buckets)
+                bucket.reset();
+            this.totalNanos.reset();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Forge Community Wiki
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.forgecommunitywiki.examplemod.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A hashed timing wheel used to schedule work on a specific game tick. Timers
+ * are stored in the slot of their deadline modulo the number of slots, so
+ * advancing the wheel only looks at the slots of the ticks that have passed
+ * rather than every scheduled timer. Timers further away than the number of
+ * slots stay in their slot until a later rotation reaches their deadline.
+ *
+ * <p>
+ * The wheel is not thread safe and should only be used from the thread that
+ * advances it.
+ *
+ * @param <T> The type of value scheduled
+ */
+public final class TimingWheel<T> {
+
+    /**
+     * Represents a wheel that has not been advanced yet.
+     */
+    private static final long UNSET = Long.MIN_VALUE;
+
+    private final List<List<Timer<T>>> slots;
+    private final int mask;
+    /**
+     * The last tick the wheel was advanced to.
+     */
+    private long tick = TimingWheel.UNSET;
+
+    /**
+     * Creates a timing wheel.
+     *
+     * @param  slotCount                The number of slots in the wheel, must be a
+     *                                  power of two
+     * @throws IllegalArgumentException If the slot count is not a positive power
+     *                                  of two
+     */
+    public TimingWheel(final int slotCount) {
+        if (slotCount <= 0 || Integer.bitCount(slotCount) != 1)
+            throw new IllegalArgumentException("The slot count must be a positive power of two: " + slotCount);
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++)
+            this.slots.add(new ArrayList<>());
+        this.mask = slotCount - 1;
+    }
+
+    /**
+     * Schedules a value to be fired on the specified tick. Ticks that have
+     * already passed will fire on the next advance.
+     *
+     * @param  deadline The tick to fire on
+     * @param  value    The value to fire
+     * @return          A timer which can be used to cancel the scheduled value
+     */
+    public Timer<T> schedule(final long deadline, final T value) {
+        final Timer<T> timer = new Timer<>(
+                this.tick == TimingWheel.UNSET ? deadline : Math.max(deadline, this.tick + 1), value);
+        this.slots.get((int) (timer.deadline & this.mask)).add(timer);
+        return timer;
+    }
+
+    /**
+     * Advances the wheel to the specified tick, firing every timer whose deadline
+     * has been reached. Values scheduled while firing are added to the wheel
+     * after it has moved to the new tick.
+     *
+     * @param now    The current tick
+     * @param action The action to perform on each fired value
+     */
+    public void advance(final long now, final Consumer<? super T> action) {
+        if (this.tick == TimingWheel.UNSET)
+            this.tick = now - 1;
+        if (now <= this.tick)
+            return;
+
+        // Only a single rotation needs to be checked if the wheel fell behind
+        final long from = now - this.tick > this.slots.size() ? now - this.mask : this.tick + 1;
+        this.tick = now;
+
+        final List<Timer<T>> fired = new ArrayList<>();
+        for (long current = from; current <= now; current++) {
+            final List<Timer<T>> slot = this.slots.get((int) (current & this.mask));
+            for (int i = slot.size() - 1; i >= 0; i--) {
+                final Timer<T> timer = slot.get(i);
+                if (timer.cancelled || timer.deadline <= now) {
+                    // Swap with the last timer to remove in constant time
+                    slot.set(i, slot.get(slot.size() - 1));
+                    slot.remove(slot.size() - 1);
+                    if (!timer.cancelled)
+                        fired.add(timer);
+                }
+            }
+        }
+        fired.forEach(timer -> action.accept(timer.value));
+    }
+
+    /**
+     * A value scheduled on the wheel.
+     *
+     * @param <T> The type of value scheduled
+     */
+    public static final class Timer<T> {
+
+        private final long deadline;
+        private final T value;
+        private boolean cancelled;
+
+        private Timer(final long deadline, final T value) {
+            this.deadline = deadline;
+            this.value = value;
+        }
+
+        /**
+         * Cancels the timer. The timer is removed the next time its slot is
+         * reached.
+         */
+        public void cancel() {
+            this.cancelled = true;
+        }
+
+        public long getDeadline() { return this.deadline; }
+    }
+}